@@ -0,0 +1,65 @@
+package com.example.jsonplaceholderclone.benchmark;
+
+import com.example.jsonplaceholderclone.security.JwtTokenProvider;
+import com.example.jsonplaceholderclone.security.UserPrincipal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Token issue and verification as done on login and on every authenticated request. With {@code
+ * verifiedCacheSize=0} every verify pays the HMAC check and JSON parse; with the default size a
+ * repeated token is answered from the verified-claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+  private static final String SECRET =
+      "your-secret-key-should-be-very-long-and-secure-in-production";
+
+  @Param({"0", "10000"})
+  private int verifiedCacheSize;
+
+  private JwtTokenProvider tokenProvider;
+  private Authentication authentication;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    tokenProvider = new JwtTokenProvider(SECRET, 86400000L, verifiedCacheSize);
+    final UserPrincipal principal =
+        new UserPrincipal(1L, "Bret", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    authentication =
+        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    token = tokenProvider.generateToken(authentication);
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return tokenProvider.generateToken(authentication);
+  }
+
+  @Benchmark
+  public Optional<UserPrincipal> verifyToken() {
+    return tokenProvider.verify(token).flatMap(JwtTokenProvider::principalOf);
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.jsonplaceholderclone.benchmark;
+
+import com.example.jsonplaceholderclone.security.PasswordEncoders;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing per algorithm and cost, as paid by registration ({@code encode}) and login
+ * ({@code matches}). {@code cost} is {@code bcrypt-<strength>} or {@code
+ * argon2-<memoryKib>-<iterations>}; each bcrypt step doubles the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 4)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+  private static final String PASSWORD = "correct horse battery staple";
+  private static final int DEFAULT_BCRYPT_STRENGTH = 10;
+  private static final int DEFAULT_ARGON2_MEMORY_KIB = 19456;
+  private static final int DEFAULT_ARGON2_ITERATIONS = 2;
+
+  @Param({"bcrypt-10", "bcrypt-11", "bcrypt-12", "bcrypt-13", "argon2-19456-2"})
+  private String cost;
+
+  private PasswordEncoder encoder;
+  private String hash;
+
+  @Setup
+  public void setUp() {
+    final String[] parts = cost.split("-");
+    if (PasswordEncoders.BCRYPT.equals(parts[0])) {
+      encoder =
+          PasswordEncoders.create(
+              PasswordEncoders.BCRYPT,
+              Integer.parseInt(parts[1]),
+              DEFAULT_ARGON2_MEMORY_KIB,
+              DEFAULT_ARGON2_ITERATIONS);
+    } else {
+      encoder =
+          PasswordEncoders.create(
+              PasswordEncoders.ARGON2,
+              DEFAULT_BCRYPT_STRENGTH,
+              Integer.parseInt(parts[1]),
+              Integer.parseInt(parts[2]));
+    }
+    hash = encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches(PASSWORD, hash);
+  }
+}
@@ -0,0 +1,54 @@
+package com.example.jsonplaceholderclone.benchmark;
+
+import com.example.jsonplaceholderclone.model.Address;
+import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.Geo;
+import com.example.jsonplaceholderclone.model.User;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Users shaped like the seed data: every field set, with an address, geo and company. */
+final class SampleUsers {
+
+  private SampleUsers() {}
+
+  static User user(final String username) {
+    final Geo geo = new Geo();
+    geo.setLat(-37.3159);
+    geo.setLng(81.1496);
+    final Address address = new Address();
+    address.setStreet("Kulas Light");
+    address.setSuite("Apt. 556");
+    address.setCity("Gwenborough");
+    address.setZipcode("92998-3874");
+    address.setGeo(geo);
+    final Company company = new Company();
+    company.setName("Romaguera-Crona");
+    company.setCatchPhrase("Multi-layered client-server neural-net");
+    company.setBs("harness real-time e-markets");
+    final User user = new User();
+    user.setName("Benchmark User " + username);
+    user.setUsername(username);
+    user.setEmail(username + "@benchmark.example");
+    user.setPhone("1-770-736-8031 x56442");
+    user.setWebsite("hildegard.org");
+    user.setAddress(address);
+    user.setCompany(company);
+    user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6xpHHd1V3zVMFPCX4QdTFQa");
+    return user;
+  }
+
+  /** {@code count} users with ids 1 to {@code count}, as they are after loading. */
+  static List<User> persisted(final int count) {
+    final List<User> users = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      final User user = user("user" + i);
+      user.setId((long) i);
+      user.setVersion(0L);
+      user.getAddress().setId((long) i);
+      user.getCompany().setId((long) i);
+      users.add(user);
+    }
+    return users;
+  }
+}
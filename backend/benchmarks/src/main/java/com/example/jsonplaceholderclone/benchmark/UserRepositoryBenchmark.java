@@ -0,0 +1,112 @@
+package com.example.jsonplaceholderclone.benchmark;
+
+import com.example.jsonplaceholderclone.JsonPlaceholderCloneApplication;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link UserRepository} reads and writes through the full application context (Hibernate, the
+ * second-level cache, sequences and batching) on embedded H2 with the {@code benchmark} profile.
+ * The database is seeded with {@code seedUsers} users; {@code insert} keeps adding rows, so compare
+ * runs with the same iteration settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+  private static final int SEED_BATCH_SIZE = 1000;
+  private static final int PAGE_SIZE = 20;
+
+  @Param({"10000"})
+  private int seedUsers;
+
+  private ConfigurableApplicationContext context;
+  private UserRepository userRepository;
+  private TransactionTemplate transactionTemplate;
+  private final List<Long> ids = new ArrayList<>();
+  private final AtomicLong inserted = new AtomicLong();
+
+  @Setup
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(JsonPlaceholderCloneApplication.class)
+            .profiles("benchmark")
+            .run();
+    userRepository = context.getBean(UserRepository.class);
+    transactionTemplate = context.getBean(TransactionTemplate.class);
+    for (int start = 0; start < seedUsers; start += SEED_BATCH_SIZE) {
+      final List<User> batch = new ArrayList<>(SEED_BATCH_SIZE);
+      for (int i = start; i < Math.min(start + SEED_BATCH_SIZE, seedUsers); i++) {
+        batch.add(SampleUsers.user("seed" + i));
+      }
+      userRepository.saveAll(batch).forEach(user -> ids.add(user.getId()));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  /** Served from the second-level cache once the entry has been loaded. */
+  @Benchmark
+  public Optional<User> findById() {
+    return userRepository.findById(randomId());
+  }
+
+  @Benchmark
+  public Optional<User> findByUsername() {
+    return userRepository.findByUsername("seed" + ThreadLocalRandom.current().nextInt(seedUsers));
+  }
+
+  @Benchmark
+  public List<User> findByIdIn() {
+    final int from = ThreadLocalRandom.current().nextInt(ids.size() - PAGE_SIZE);
+    return userRepository.findByIdIn(ids.subList(from, from + PAGE_SIZE));
+  }
+
+  @Benchmark
+  public User insert() {
+    return userRepository.save(SampleUsers.user("insert" + inserted.incrementAndGet()));
+  }
+
+  /** Load, change and flush one user in a transaction, bumping its version. */
+  @Benchmark
+  public User update() {
+    return transactionTemplate.execute(
+        status -> {
+          final User user = userRepository.findById(randomId()).orElseThrow();
+          user.setWebsite("site" + ThreadLocalRandom.current().nextInt() + ".example");
+          return user;
+        });
+  }
+
+  private Long randomId() {
+    return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+  }
+}
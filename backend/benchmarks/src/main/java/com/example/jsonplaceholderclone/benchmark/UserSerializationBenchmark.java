@@ -0,0 +1,66 @@
+package com.example.jsonplaceholderclone.benchmark;
+
+import com.example.jsonplaceholderclone.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of users with their address and company, with the object mapper settings
+ * Spring Boot gives the application. {@code users=1} is a {@code GET /api/users/{id}} body, the
+ * larger sizes are list pages and exports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerializationBenchmark {
+
+  @Param({"1", "100", "10000"})
+  private int users;
+
+  private ObjectWriter userWriter;
+  private ObjectWriter listWriter;
+  private List<User> page;
+
+  @Setup
+  public void setUp() {
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    userWriter = objectMapper.writerFor(User.class);
+    listWriter =
+        objectMapper.writerFor(
+            objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
+    page = SampleUsers.persisted(users);
+  }
+
+  @Benchmark
+  public byte[] serializeList() throws JsonProcessingException {
+    return listWriter.writeValueAsBytes(page);
+  }
+
+  /** One document per user, as written by the NDJSON export. */
+  @Benchmark
+  public long serializeEach() throws JsonProcessingException {
+    long bytes = 0;
+    for (final User user : page) {
+      bytes += userWriter.writeValueAsBytes(user).length;
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.jsonplaceholderclone.loadtest;
+
+import com.example.jsonplaceholderclone.model.Address;
+import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.Geo;
+import com.example.jsonplaceholderclone.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Setup calls against the server under test: accounts, tokens, seed data and metrics. */
+final class ApiClient {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private final HttpClient http;
+  private final URI baseUri;
+  private final URI managementUri;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  ApiClient(final HttpClient http, final URI baseUri, final URI managementUri) {
+    this.http = http;
+    this.baseUri = baseUri;
+    this.managementUri = managementUri;
+  }
+
+  void register(final String username, final String password)
+      throws IOException, InterruptedException {
+    send(
+        "POST",
+        "/api/auth/register",
+        null,
+        Map.of(
+            "name", username,
+            "username", username,
+            "email", username + "@loadtest.local",
+            "password", password));
+  }
+
+  String login(final String username, final String password)
+      throws IOException, InterruptedException {
+    return send(
+            "POST",
+            "/api/auth/login",
+            null,
+            Map.of("username", username, "password", password))
+        .get("token")
+        .asText();
+  }
+
+  /** Creates {@code count} users through the batch endpoint and returns their ids. */
+  List<Long> seedUsers(final String token, final String prefix, final int count)
+      throws IOException, InterruptedException {
+    final List<Long> ids = new ArrayList<>(count);
+    for (int from = 0; from < count; from += BATCH_SIZE) {
+      final List<User> batch = new ArrayList<>();
+      for (int i = from; i < Math.min(count, from + BATCH_SIZE); i++) {
+        batch.add(sampleUser(prefix + i));
+      }
+      for (final JsonNode created : send("POST", "/api/users/batch", token, batch)) {
+        ids.add(created.get("id").asLong());
+      }
+    }
+    return ids;
+  }
+
+  /** A statistic of an actuator meter, or 0 when the meter has not been registered. */
+  double metric(final String token, final String name, final String statistic)
+      throws IOException, InterruptedException {
+    final HttpResponse<String> response =
+        http.send(
+            request(managementUri, "GET", "/actuator/metrics/" + name, token, null),
+            HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() == 404) {
+      return 0;
+    }
+    for (final JsonNode measurement : mapper.readTree(response.body()).get("measurements")) {
+      if (statistic.equals(measurement.get("statistic").asText())) {
+        return measurement.get("value").asDouble();
+      }
+    }
+    return 0;
+  }
+
+  HttpRequest request(
+      final String method, final String path, final String token, final Object body)
+      throws IOException {
+    return request(baseUri, method, path, token, body);
+  }
+
+  private HttpRequest request(
+      final URI base, final String method, final String path, final String token, final Object body)
+      throws IOException {
+    final HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path));
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    if (body == null) {
+      return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+    return builder
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+        .build();
+  }
+
+  static User sampleUser(final String username) {
+    final Geo geo = new Geo();
+    geo.setLat(52.0 + (username.hashCode() % 1000) / 1000.0);
+    geo.setLng(21.0 + (username.hashCode() % 1000) / 1000.0);
+    final Address address = new Address();
+    address.setStreet("Load Street");
+    address.setSuite("Apt. 1");
+    address.setCity("Loadville");
+    address.setZipcode("00-001");
+    address.setGeo(geo);
+    final Company company = new Company();
+    company.setName("Load Co " + username);
+    company.setCatchPhrase("Steady under pressure");
+    company.setBs("generate predictable traffic");
+    final User user = new User();
+    user.setName("Load User " + username);
+    user.setUsername(username);
+    user.setEmail(username + "@loadtest.local");
+    user.setPhone("1-770-736-8031");
+    user.setWebsite("loadtest.local");
+    user.setAddress(address);
+    user.setCompany(company);
+    return user;
+  }
+
+  private JsonNode send(
+      final String method, final String path, final String token, final Object body)
+      throws IOException, InterruptedException {
+    final HttpResponse<byte[]> response =
+        http.send(request(method, path, token, body), HttpResponse.BodyHandlers.ofByteArray());
+    if (response.statusCode() >= 300) {
+      final String detail = new String(response.body(), StandardCharsets.UTF_8);
+      throw new IllegalStateException(
+          method + " " + path + " answered " + response.statusCode() + ": " + detail);
+    }
+    return mapper.readTree(response.body());
+  }
+}
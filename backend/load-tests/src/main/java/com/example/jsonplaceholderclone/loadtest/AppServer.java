@@ -0,0 +1,118 @@
+package com.example.jsonplaceholderclone.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application started in a child JVM with the {@code loadtest} profile (embedded H2), so the
+ * load generator does not share its heap, GC pauses or CPU accounting. The child runs on this
+ * module's classpath and its output goes to {@code loadtest-<name>.log} in the working directory.
+ */
+final class AppServer implements AutoCloseable {
+
+  private static final String MAIN_CLASS =
+      "com.example.jsonplaceholderclone.JsonPlaceholderCloneApplication";
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  private final Process process;
+  private final URI baseUri;
+  private final URI managementUri;
+
+  private AppServer(final Process process, final URI baseUri, final URI managementUri) {
+    this.process = process;
+    this.baseUri = baseUri;
+    this.managementUri = managementUri;
+  }
+
+  static AppServer start(final String name, final List<String> jvmArgs, final List<String> appArgs)
+      throws IOException, InterruptedException {
+    final int port = freePort();
+    final int managementPort = freePort();
+    final List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmArgs);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(MAIN_CLASS);
+    command.add("--server.port=" + port);
+    command.add("--management.server.port=" + managementPort);
+    command.add("--spring.profiles.active=loadtest");
+    command.addAll(appArgs);
+
+    final Path log = Path.of("loadtest-" + name + ".log");
+    final Process process =
+        new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    final AppServer server =
+        new AppServer(
+            process,
+            URI.create("http://localhost:" + port),
+            URI.create("http://localhost:" + managementPort));
+    try {
+      server.awaitStarted(log);
+    } catch (final IOException | InterruptedException | RuntimeException e) {
+      server.close();
+      throw e;
+    }
+    return server;
+  }
+
+  URI baseUri() {
+    return baseUri;
+  }
+
+  /** Where the actuator endpoints are served. */
+  URI managementUri() {
+    return managementUri;
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    process.destroy();
+    if (!process.waitFor(30, TimeUnit.SECONDS)) {
+      process.destroyForcibly().waitFor();
+    }
+  }
+
+  /**
+   * Waits until the management server answers at all; it starts after the API port, so any status
+   * means startup has finished.
+   */
+  private void awaitStarted(final Path log) throws IOException, InterruptedException {
+    final HttpClient client =
+        HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    final HttpRequest probe =
+        HttpRequest.newBuilder(managementUri.resolve("/actuator/health")).build();
+    final long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException(
+            "Server exited during startup, see " + log.toAbsolutePath());
+      }
+      try {
+        client.send(probe, HttpResponse.BodyHandlers.discarding());
+        return;
+      } catch (final IOException e) {
+        Thread.sleep(250);
+      }
+    }
+    throw new IllegalStateException("Server did not start within " + STARTUP_TIMEOUT);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.jsonplaceholderclone.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/** {@code key=value} command-line arguments of the load tests. */
+final class LoadTestOptions {
+
+  private final Map<String, String> values = new HashMap<>();
+
+  LoadTestOptions(final String[] args) {
+    for (final String arg : args) {
+      final int eq = arg.indexOf('=');
+      if (eq > 0) {
+        values.put(arg.substring(0, eq), arg.substring(eq + 1));
+      }
+    }
+  }
+
+  String get(final String key, final String defaultValue) {
+    return values.getOrDefault(key, defaultValue);
+  }
+
+  int getInt(final String key, final int defaultValue) {
+    return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+  }
+
+  double getDouble(final String key, final double defaultValue) {
+    return Double.parseDouble(get(key, String.valueOf(defaultValue)));
+  }
+
+  Duration getSeconds(final String key, final long defaultSeconds) {
+    return Duration.ofSeconds(Long.parseLong(get(key, String.valueOf(defaultSeconds))));
+  }
+}
@@ -0,0 +1,160 @@
+package com.example.jsonplaceholderclone.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Compares the server on Tomcat's platform-thread pool with the same server on virtual threads.
+ * For each mode a fresh server is started with identical settings apart from {@code
+ * spring.threads.virtual.enabled}, seeded with users, and then driven by {@code connections}
+ * closed-loop clients, each on its own connection, sending filtered {@code GET /api/users} pages
+ * (one JDBC query per request) for {@code duration} seconds after a {@code warmup}.
+ *
+ * <p>Arguments are {@code key=value}: {@code connections} (default {@code 1000,2000,5000,10000}),
+ * {@code duration} and {@code warmup} in seconds, {@code users} to seed and {@code modes}. Results
+ * are printed, written to {@code thread-mode-benchmark.csv}, and each run's latency distribution to
+ * {@code thread-mode-<mode>-<connections>.hgrm}. 10k connections need about 25k file descriptors
+ * ({@code ulimit -n}) for the client and server together.
+ */
+public final class ThreadModeBenchmark {
+
+  private static final Map<String, List<String>> MODE_ARGS =
+      Map.of(
+          "platform",
+          List.of("--spring.threads.virtual.enabled=false", "--server.tomcat.threads.max=200"),
+          "virtual",
+          List.of("--spring.threads.virtual.enabled=true"));
+  private static final List<String> SERVER_JVM_ARGS = List.of("-Xms2g", "-Xmx2g");
+  private static final String USERNAME_PREFIX = "bench-";
+
+  private ThreadModeBenchmark() {}
+
+  public static void main(final String[] args) throws Exception {
+    final LoadTestOptions options = new LoadTestOptions(args);
+    final int[] connectionCounts =
+        Arrays.stream(options.get("connections", "1000,2000,5000,10000").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+    final Duration duration = options.getSeconds("duration", 30);
+    final Duration warmup = options.getSeconds("warmup", 10);
+    final int users = options.getInt("users", 10000);
+    final List<String> modes = List.of(options.get("modes", "platform,virtual").split(","));
+
+    final List<String> rows = new ArrayList<>();
+    rows.add("mode,connections,requests_per_second,p50_ms,p99_ms,max_ms,errors,pinned");
+    for (final String mode : modes) {
+      if (!MODE_ARGS.containsKey(mode)) {
+        throw new IllegalArgumentException(
+            "Unknown mode " + mode + ", expected one of " + MODE_ARGS.keySet());
+      }
+      try (AppServer server = AppServer.start(mode, SERVER_JVM_ARGS, MODE_ARGS.get(mode));
+          HttpClient setupClient = HttpClient.newHttpClient()) {
+        final ApiClient api = new ApiClient(setupClient, server.baseUri(), server.managementUri());
+        api.register("bench-admin", "bench-password");
+        final String token = api.login("bench-admin", "bench-password");
+        api.seedUsers(token, USERNAME_PREFIX, users);
+        for (final int connections : connectionCounts) {
+          final double pinnedBefore = api.metric(token, "jvm.threads.virtual.pinned", "COUNT");
+          final Result result =
+              run(server.baseUri(), token, users, connections, warmup, duration);
+          final double pinned =
+              api.metric(token, "jvm.threads.virtual.pinned", "COUNT") - pinnedBefore;
+          try (PrintStream out =
+              new PrintStream(
+                  Files.newOutputStream(
+                      Path.of("thread-mode-" + mode + "-" + connections + ".hgrm")))) {
+            result.histogram().outputPercentileDistribution(out, 1000.0);
+          }
+          final String row =
+              String.format(
+                  "%s,%d,%.1f,%.2f,%.2f,%.2f,%d,%.0f",
+                  mode,
+                  connections,
+                  result.completed() / (double) duration.toSeconds(),
+                  result.histogram().getValueAtPercentile(50) / 1000.0,
+                  result.histogram().getValueAtPercentile(99) / 1000.0,
+                  result.histogram().getMaxValue() / 1000.0,
+                  result.errors(),
+                  pinned);
+          System.out.println(row);
+          rows.add(row);
+        }
+      }
+    }
+    Files.write(Path.of("thread-mode-benchmark.csv"), rows);
+  }
+
+  private record Result(Histogram histogram, long completed, long errors) {}
+
+  private static Result run(
+      final URI baseUri,
+      final String token,
+      final int users,
+      final int connections,
+      final Duration warmup,
+      final Duration duration) {
+    final Recorder recorder = new Recorder(3);
+    final LongAdder completed = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    final long measureFrom = System.nanoTime() + warmup.toNanos();
+    final long end = measureFrom + duration.toNanos();
+    try (HttpClient http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build()) {
+      // one virtual thread per connection, so the client side never caps the concurrency; closing
+      // the executor waits for every client to pass the end of the run
+      try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int c = 0; c < connections; c++) {
+          clients.submit(
+              () -> {
+                while (System.nanoTime() < end) {
+                  final String prefix =
+                      USERNAME_PREFIX
+                          + ThreadLocalRandom.current().nextInt(Math.max(1, users / 10));
+                  final HttpRequest request =
+                      HttpRequest.newBuilder(
+                              baseUri.resolve("/api/users?limit=20&usernamePrefix=" + prefix))
+                          .header("Authorization", "Bearer " + token)
+                          .build();
+                  final long start = System.nanoTime();
+                  boolean ok;
+                  try {
+                    ok =
+                        http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()
+                            == 200;
+                  } catch (final IOException e) {
+                    ok = false;
+                  }
+                  final long finish = System.nanoTime();
+                  if (start >= measureFrom && finish <= end) {
+                    recorder.recordValue((finish - start) / 1000);
+                    (ok ? completed : errors).increment();
+                  }
+                }
+                return null;
+              });
+        }
+      }
+    }
+    return new Result(recorder.getIntervalHistogram(), completed.sum(), errors.sum());
+  }
+}
@@ -0,0 +1,345 @@
+package com.example.jsonplaceholderclone.loadtest;
+
+import com.example.jsonplaceholderclone.model.User;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Replays a mix of auth and user traffic against a fresh server on embedded H2 at a fixed arrival
+ * rate, and fails when an endpoint misses its latency budget. Requests are started on schedule
+ * whether or not earlier ones have finished (an open loop), and latency is measured from the
+ * scheduled start, so a stalled server shows up as queueing time instead of fewer samples.
+ *
+ * <p>Arguments are {@code key=value}: {@code rate} in requests per second (default 200), {@code
+ * duration} and {@code warmup} in seconds, {@code users} to seed, {@code accounts} to log in with,
+ * {@code mix} as {@code operation=weight} pairs ({@code login, register, list, get, create,
+ * update}), {@code budgets} as {@code operation.percentile=milliseconds} pairs with percentiles
+ * {@code p50, p95, p99, max}, and {@code max-error-rate}. Results are printed, written to {@code
+ * traffic-mix.csv}, and each operation's latency distribution to {@code traffic-mix-<op>.hgrm}.
+ * The process exits with status 1 when a budget is exceeded.
+ */
+public final class TrafficMixLoadTest {
+
+  private static final String DEFAULT_MIX =
+      "login=10,register=2,list=35,get=35,create=8,update=10";
+  private static final String DEFAULT_BUDGETS =
+      "login.p99=1000,register.p99=1500,list.p99=250,get.p99=100,create.p99=500,update.p99=500";
+  private static final List<String> SERVER_JVM_ARGS = List.of("-Xms1g", "-Xmx1g");
+  private static final String USERNAME_PREFIX = "load-";
+  private static final String ACCOUNT_PREFIX = "account-";
+  private static final String PASSWORD = "load-password";
+  private static final int LIST_PAGE_SIZE = 20;
+  private static final Set<String> PERCENTILES = Set.of("p50", "p95", "p99", "max");
+
+  enum Operation {
+    LOGIN,
+    REGISTER,
+    LIST,
+    GET,
+    CREATE,
+    UPDATE;
+
+    String key() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Operation of(final String key) {
+      return valueOf(key.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  private record Budget(Operation operation, String percentile, double limitMs) {}
+
+  private record Stats(Recorder recorder, LongAdder errors) {}
+
+  private final ApiClient api;
+  private final List<Long> userIds;
+  private final List<String> tokens;
+  private final int accounts;
+  private final AtomicLong created = new AtomicLong();
+
+  private TrafficMixLoadTest(
+      final ApiClient api, final List<Long> userIds, final List<String> tokens) {
+    this.api = api;
+    this.userIds = userIds;
+    this.tokens = tokens;
+    this.accounts = tokens.size();
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final LoadTestOptions options = new LoadTestOptions(args);
+    final double rate = options.getDouble("rate", 200);
+    final Duration duration = options.getSeconds("duration", 60);
+    final Duration warmup = options.getSeconds("warmup", 10);
+    final int users = options.getInt("users", 10000);
+    final int accounts = options.getInt("accounts", 20);
+    final double maxErrorRate = options.getDouble("max-error-rate", 0.01);
+    final Map<Operation, Integer> mix = parseMix(options.get("mix", DEFAULT_MIX));
+    final List<Budget> budgets = parseBudgets(options.get("budgets", DEFAULT_BUDGETS));
+
+    final Map<Operation, Stats> stats;
+    final HttpClient http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    try (AppServer server = AppServer.start("traffic-mix", SERVER_JVM_ARGS, List.of())) {
+      final ApiClient api = new ApiClient(http, server.baseUri(), server.managementUri());
+      final List<String> tokens = new ArrayList<>(accounts);
+      for (int i = 0; i < accounts; i++) {
+        api.register(ACCOUNT_PREFIX + i, PASSWORD);
+        tokens.add(api.login(ACCOUNT_PREFIX + i, PASSWORD));
+      }
+      final List<Long> userIds = api.seedUsers(tokens.get(0), USERNAME_PREFIX, users);
+      stats = new TrafficMixLoadTest(api, userIds, tokens).run(http, mix, rate, warmup, duration);
+    }
+
+    final List<String> violations =
+        report(stats, budgets, duration, maxErrorRate, Path.of("traffic-mix.csv"));
+    if (!violations.isEmpty()) {
+      violations.forEach(violation -> System.out.println("BUDGET EXCEEDED: " + violation));
+      System.exit(1);
+    }
+    System.out.println("All latency budgets met");
+  }
+
+  private Map<Operation, Stats> run(
+      final HttpClient http,
+      final Map<Operation, Integer> mix,
+      final double rate,
+      final Duration warmup,
+      final Duration duration) {
+    final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    mix.keySet().forEach(op -> stats.put(op, new Stats(new Recorder(3), new LongAdder())));
+    final List<Operation> schedule = new ArrayList<>();
+    mix.forEach((op, weight) -> schedule.addAll(Collections.nCopies(weight, op)));
+
+    final long intervalNanos = (long) (1_000_000_000L / rate);
+    final long start = System.nanoTime();
+    final long measureFrom = start + warmup.toNanos();
+    final long end = measureFrom + duration.toNanos();
+    // requests are sent asynchronously, so a slow server never delays the next scheduled start
+    // and no thread is held per request in flight
+    final List<CompletableFuture<?>> inFlight = new ArrayList<>();
+    for (long i = 0; ; i++) {
+      final long scheduled = start + i * intervalNanos;
+      if (scheduled >= end) {
+        break;
+      }
+      LockSupport.parkNanos(scheduled - System.nanoTime());
+      final Operation op = schedule.get(ThreadLocalRandom.current().nextInt(schedule.size()));
+      final HttpRequest request;
+      try {
+        request = request(op);
+      } catch (final IOException e) {
+        record(stats, op, scheduled, measureFrom, false);
+        continue;
+      }
+      inFlight.add(
+          http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+              .whenComplete(
+                  (response, failure) ->
+                      record(
+                          stats,
+                          op,
+                          scheduled,
+                          measureFrom,
+                          failure == null
+                              && response.statusCode() >= 200
+                              && response.statusCode() < 300)));
+    }
+    // wait for the requests still in flight; their failures are already counted
+    CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+        .exceptionally(failure -> null)
+        .join();
+    return stats;
+  }
+
+  private static void record(
+      final Map<Operation, Stats> stats,
+      final Operation op,
+      final long scheduled,
+      final long measureFrom,
+      final boolean ok) {
+    if (scheduled < measureFrom) {
+      return;
+    }
+    final Stats opStats = stats.get(op);
+    opStats.recorder().recordValue((System.nanoTime() - scheduled) / 1000);
+    if (!ok) {
+      opStats.errors().increment();
+    }
+  }
+
+  private HttpRequest request(final Operation op) throws IOException {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final String token = tokens.get(random.nextInt(tokens.size()));
+    final int index = random.nextInt(userIds.size());
+    return switch (op) {
+      case LOGIN ->
+          api.request(
+              "POST",
+              "/api/auth/login",
+              null,
+              Map.of("username", ACCOUNT_PREFIX + random.nextInt(accounts), "password", PASSWORD));
+      case REGISTER -> {
+        final String username = "register-" + created.incrementAndGet();
+        yield api.request(
+            "POST",
+            "/api/auth/register",
+            null,
+            Map.of(
+                "name", username,
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", PASSWORD));
+      }
+      case LIST -> api.request("GET", "/api/users?limit=" + LIST_PAGE_SIZE, token, null);
+      case GET -> api.request("GET", "/api/users/" + userIds.get(index), token, null);
+      case CREATE ->
+          api.request(
+              "POST",
+              "/api/users",
+              token,
+              ApiClient.sampleUser("create-" + created.incrementAndGet()));
+      case UPDATE -> {
+        // a full replacement that keeps the seeded username and email, so it never conflicts
+        final User user = ApiClient.sampleUser(USERNAME_PREFIX + index);
+        user.setWebsite("updated-" + random.nextInt(1000) + ".loadtest.local");
+        yield api.request("PUT", "/api/users/" + userIds.get(index), token, user);
+      }
+    };
+  }
+
+  /** Prints and writes the results and returns the budgets that were exceeded. */
+  private static List<String> report(
+      final Map<Operation, Stats> stats,
+      final List<Budget> budgets,
+      final Duration duration,
+      final double maxErrorRate,
+      final Path csv)
+      throws IOException {
+    final List<String> rows = new ArrayList<>();
+    rows.add("operation,requests,requests_per_second,p50_ms,p95_ms,p99_ms,max_ms,errors");
+    final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    final List<String> violations = new ArrayList<>();
+    for (final Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+      final Operation op = entry.getKey();
+      final Histogram histogram = entry.getValue().recorder().getIntervalHistogram();
+      final long errors = entry.getValue().errors().sum();
+      histograms.put(op, histogram);
+      try (PrintStream out =
+          new PrintStream(Files.newOutputStream(Path.of("traffic-mix-" + op.key() + ".hgrm")))) {
+        histogram.outputPercentileDistribution(out, 1000.0);
+      }
+      final String row =
+          String.format(
+              Locale.ROOT,
+              "%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d",
+              op.key(),
+              histogram.getTotalCount(),
+              histogram.getTotalCount() / (double) duration.toSeconds(),
+              percentileMs(histogram, "p50"),
+              percentileMs(histogram, "p95"),
+              percentileMs(histogram, "p99"),
+              percentileMs(histogram, "max"),
+              errors);
+      System.out.println(row);
+      rows.add(row);
+      if (histogram.getTotalCount() > 0 && errors > maxErrorRate * histogram.getTotalCount()) {
+        violations.add(
+            String.format(
+                Locale.ROOT,
+                "%s errors %d of %d exceed rate %.3f",
+                op.key(),
+                errors,
+                histogram.getTotalCount(),
+                maxErrorRate));
+      }
+    }
+    Files.write(csv, rows);
+
+    for (final Budget budget : budgets) {
+      final Histogram histogram = histograms.get(budget.operation());
+      if (histogram == null || histogram.getTotalCount() == 0) {
+        continue;
+      }
+      final double actualMs = percentileMs(histogram, budget.percentile());
+      if (actualMs > budget.limitMs()) {
+        violations.add(
+            String.format(
+                Locale.ROOT,
+                "%s %s %.2f ms > %.2f ms",
+                budget.operation().key(),
+                budget.percentile(),
+                actualMs,
+                budget.limitMs()));
+      }
+    }
+    return violations;
+  }
+
+  private static double percentileMs(final Histogram histogram, final String percentile) {
+    final long micros =
+        switch (percentile) {
+          case "max" -> histogram.getMaxValue();
+          case "p50" -> histogram.getValueAtPercentile(50);
+          case "p95" -> histogram.getValueAtPercentile(95);
+          case "p99" -> histogram.getValueAtPercentile(99);
+          default -> throw new IllegalArgumentException("Unknown percentile " + percentile);
+        };
+    return micros / 1000.0;
+  }
+
+  private static Map<Operation, Integer> parseMix(final String mix) {
+    final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (final String pair : mix.split(",")) {
+      final String[] parts = pair.split("=");
+      final int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(Operation.of(parts[0]), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("The mix has no operation with a positive weight");
+    }
+    return weights;
+  }
+
+  private static List<Budget> parseBudgets(final String budgets) {
+    final List<Budget> parsed = new ArrayList<>();
+    if (budgets.isBlank()) {
+      return parsed;
+    }
+    for (final String pair : budgets.split(",")) {
+      final String[] parts = pair.split("=");
+      final String[] key = parts[0].trim().split("\\.");
+      if (!PERCENTILES.contains(key[1])) {
+        throw new IllegalArgumentException(
+            "Unknown percentile " + key[1] + ", expected one of " + PERCENTILES);
+      }
+      parsed.add(new Budget(Operation.of(key[0]), key[1], Double.parseDouble(parts[1].trim())));
+    }
+    return parsed;
+  }
+}
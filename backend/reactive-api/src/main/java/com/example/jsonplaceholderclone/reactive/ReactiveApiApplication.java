@@ -0,0 +1,12 @@
+package com.example.jsonplaceholderclone.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveApiApplication {
+
+  public static void main(final String[] args) {
+    SpringApplication.run(ReactiveApiApplication.class, args);
+  }
+}
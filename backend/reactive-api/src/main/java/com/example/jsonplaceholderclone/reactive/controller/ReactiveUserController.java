@@ -0,0 +1,120 @@
+package com.example.jsonplaceholderclone.reactive.controller;
+
+import com.example.jsonplaceholderclone.reactive.model.UserView;
+import com.example.jsonplaceholderclone.reactive.repository.ReactiveUserRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The read endpoints of the main API's {@code /api/users}, served on the event loop. Pages use the
+ * same {@code after} cursors and headers as the main API for the default id order; sorting,
+ * filters, sparse fieldsets and counts stay with the main API and are rejected here.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class ReactiveUserController {
+
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final String ID_SORT = "id";
+  private static final Set<String> PAGE_PARAMS = Set.of("limit", "after", "sort");
+
+  private final ReactiveUserRepository userRepository;
+
+  public ReactiveUserController(final ReactiveUserRepository userRepository) {
+    this.userRepository = userRepository;
+  }
+
+  @GetMapping
+  public Mono<ResponseEntity<List<UserView>>> getUsers(
+      @RequestParam(defaultValue = ID_SORT) final String sort,
+      @RequestParam(defaultValue = "50") final int limit,
+      @RequestParam(required = false) final String after,
+      final ServerWebExchange exchange) {
+    final long afterId;
+    try {
+      if (!ID_SORT.equals(sort)
+          || !PAGE_PARAMS.containsAll(exchange.getRequest().getQueryParams().keySet())) {
+        throw new IllegalArgumentException("Only id-ordered pages are served here");
+      }
+      afterId = after == null ? 0 : decodeCursor(after);
+    } catch (final IllegalArgumentException e) {
+      return Mono.just(ResponseEntity.badRequest().build());
+    }
+    final int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // one extra row tells whether another page exists without a COUNT(*)
+    return userRepository
+        .findPage(afterId, pageSize + 1)
+        .collectList()
+        .map(rows -> pageResponse(rows, pageSize, exchange));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<UserView> exportUsers() {
+    return userRepository.findAll();
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<UserView>> getUserById(@PathVariable final long id) {
+    return userRepository
+        .findById(id)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
+  }
+
+  /** Same headers as the main API: an empty cursor on the last page and a first link on all. */
+  private static ResponseEntity<List<UserView>> pageResponse(
+      final List<UserView> rows, final int pageSize, final ServerWebExchange exchange) {
+    final String first =
+        UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+            .replaceQueryParam("after")
+            .toUriString();
+    final String firstLink = "<" + first + ">; rel=\"first\"";
+    if (rows.size() <= pageSize) {
+      return ResponseEntity.ok()
+          .header(NEXT_CURSOR_HEADER, "")
+          .header(HttpHeaders.LINK, firstLink)
+          .body(rows);
+    }
+    final List<UserView> items = rows.subList(0, pageSize);
+    final String cursor = encodeCursor(items.get(pageSize - 1).id());
+    final String next =
+        UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+            .replaceQueryParam("after", cursor)
+            .toUriString();
+    return ResponseEntity.ok()
+        .header(NEXT_CURSOR_HEADER, cursor)
+        .header(HttpHeaders.LINK, firstLink + ", <" + next + ">; rel=\"next\"")
+        .body(items);
+  }
+
+  /** The main API's id-order cursor: {@code "id\n<lastId>"}, base64url without padding. */
+  static String encodeCursor(final long lastId) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((ID_SORT + '\n' + lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  static long decodeCursor(final String cursor) {
+    final String[] parts =
+        new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+    if (parts.length != 2 || !ID_SORT.equals(parts[0])) {
+      throw new IllegalArgumentException("Cursor was issued for a different sort");
+    }
+    return Long.parseLong(parts[1]);
+  }
+}
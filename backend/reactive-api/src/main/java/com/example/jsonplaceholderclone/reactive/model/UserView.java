@@ -0,0 +1,27 @@
+package com.example.jsonplaceholderclone.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * A user as the main API serializes it: same fields, same order, password and versions left out,
+ * and coordinates as strings like JSONPlaceholder.
+ */
+public record UserView(
+    Long id,
+    String name,
+    String username,
+    String email,
+    Address address,
+    String phone,
+    String website,
+    Company company) {
+
+  public record Address(
+      Long id, String street, String suite, String city, String zipcode, Geo geo) {}
+
+  public record Geo(
+      @JsonFormat(shape = JsonFormat.Shape.STRING) Double lat,
+      @JsonFormat(shape = JsonFormat.Shape.STRING) Double lng) {}
+
+  public record Company(Long id, String name, String catchPhrase, String bs) {}
+}
@@ -0,0 +1,90 @@
+package com.example.jsonplaceholderclone.reactive.repository;
+
+import com.example.jsonplaceholderclone.reactive.model.UserView;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads users with their address and company in one joined statement over the main application's
+ * {@code users}, {@code addresses} and {@code companies} tables. Rows are mapped as they arrive, so
+ * a listing is streamed with backpressure rather than collected first.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+  private static final String SELECT_USERS =
+      "SELECT u.id, u.name, u.username, u.email, u.phone, u.website,"
+          + " a.id AS address_id, a.street, a.suite, a.city, a.zipcode, a.lat, a.lng,"
+          + " c.id AS company_id, c.name AS company_name, c.catch_phrase, c.bs"
+          + " FROM users u"
+          + " LEFT JOIN addresses a ON a.id = u.address_id"
+          + " LEFT JOIN companies c ON c.id = u.company_id";
+
+  private final DatabaseClient databaseClient;
+
+  public ReactiveUserRepository(final DatabaseClient databaseClient) {
+    this.databaseClient = databaseClient;
+  }
+
+  public Mono<UserView> findById(final long id) {
+    return databaseClient
+        .sql(SELECT_USERS + " WHERE u.id = :id")
+        .bind("id", id)
+        .map(ReactiveUserRepository::toUser)
+        .one();
+  }
+
+  /** Up to {@code limit} users with an id above {@code afterId}, by id; the primary key seeks. */
+  public Flux<UserView> findPage(final long afterId, final int limit) {
+    return databaseClient
+        .sql(SELECT_USERS + " WHERE u.id > :afterId ORDER BY u.id LIMIT :limit")
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(ReactiveUserRepository::toUser)
+        .all();
+  }
+
+  public Flux<UserView> findAll() {
+    return databaseClient
+        .sql(SELECT_USERS + " ORDER BY u.id")
+        .map(ReactiveUserRepository::toUser)
+        .all();
+  }
+
+  private static UserView toUser(final Readable row) {
+    final Long addressId = row.get("address_id", Long.class);
+    final Long companyId = row.get("company_id", Long.class);
+    final Double lat = row.get("lat", Double.class);
+    final Double lng = row.get("lng", Double.class);
+    final UserView.Address address =
+        addressId == null
+            ? null
+            : new UserView.Address(
+                addressId,
+                row.get("street", String.class),
+                row.get("suite", String.class),
+                row.get("city", String.class),
+                row.get("zipcode", String.class),
+                lat == null && lng == null ? null : new UserView.Geo(lat, lng));
+    final UserView.Company company =
+        companyId == null
+            ? null
+            : new UserView.Company(
+                companyId,
+                row.get("company_name", String.class),
+                row.get("catch_phrase", String.class),
+                row.get("bs", String.class));
+    return new UserView(
+        row.get("id", Long.class),
+        row.get("name", String.class),
+        row.get("username", String.class),
+        row.get("email", String.class),
+        address,
+        row.get("phone", String.class),
+        row.get("website", String.class),
+        company);
+  }
+}
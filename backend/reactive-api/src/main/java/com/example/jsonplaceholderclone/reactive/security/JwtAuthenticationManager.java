@@ -0,0 +1,70 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import reactor.core.publisher.Mono;
+
+/**
+ * Accepts the tokens the main application's {@code JwtTokenProvider} issues: same secret, same
+ * {@code uid}, {@code roles} and {@code iat_ms} claims, and the same revocation and watermark rules
+ * through {@link SharedRevocations}. Verification is one HMAC and a small JSON parse, cheap enough
+ * to run on the event loop; tokens without a user id are rejected as they are by the main
+ * application.
+ */
+public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
+
+  static final String USER_ID_CLAIM = "uid";
+  static final String ROLES_CLAIM = "roles";
+  static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+  private final JwtParser parser;
+  private final SharedRevocations revocations;
+
+  public JwtAuthenticationManager(final String jwtSecret, final SharedRevocations revocations) {
+    this.parser =
+        Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+            .build();
+    this.revocations = revocations;
+  }
+
+  @Override
+  public Mono<Authentication> authenticate(final Authentication authentication) {
+    final Claims claims;
+    try {
+      claims = parser.parseClaimsJws((String) authentication.getCredentials()).getBody();
+    } catch (final JwtException | IllegalArgumentException e) {
+      return Mono.error(new BadCredentialsException("Invalid or expired token", e));
+    }
+    final Long userId = claims.get(USER_ID_CLAIM, Long.class);
+    final Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+    if (userId == null
+        || issuedAtMillis == null
+        || revocations.isRevoked(claims.getId())
+        || revocations.isInvalidated(userId, new Date(issuedAtMillis))) {
+      return Mono.error(new BadCredentialsException("Token is no longer valid"));
+    }
+    final List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    final List<GrantedAuthority> authorities =
+        roles == null
+            ? List.of()
+            : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    return Mono.just(
+        new UsernamePasswordAuthenticationToken(
+            new TokenPrincipal(userId, claims.getSubject()), null, authorities));
+  }
+}
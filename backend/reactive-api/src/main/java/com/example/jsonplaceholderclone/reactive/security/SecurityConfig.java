@@ -0,0 +1,100 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+  private static final String NO_REVOCATION_LOG = "none";
+
+  private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+  /**
+   * The main application's revocation log is required: without it, tokens that were logged out or
+   * revoked there would still be accepted here. {@code none} opts out explicitly.
+   */
+  @Bean
+  public SharedRevocations sharedRevocations(
+      @Value("${app.jwt.revocation-log:}") final String revocationLog) {
+    if (revocationLog.isBlank()) {
+      throw new IllegalStateException(
+          "app.jwt.revocation-log is not set. Point it at the main application's revocation log,"
+              + " or set it to \"none\" to accept logged-out and revoked tokens until they expire");
+    }
+    if (NO_REVOCATION_LOG.equals(revocationLog)) {
+      log.warn(
+          "app.jwt.revocation-log=none: logged-out and revoked tokens are accepted until they"
+              + " expire");
+      return new SharedRevocations(null, Clock.systemUTC());
+    }
+    return new SharedRevocations(Path.of(revocationLog), Clock.systemUTC());
+  }
+
+  /** Tails the revocation log off the event loop; the subscription ends with the context. */
+  @Bean(destroyMethod = "dispose")
+  public Disposable revocationPolling(
+      final SharedRevocations revocations,
+      @Value("${app.jwt.revocation-poll-interval:1s}") final Duration interval) {
+    return Flux.interval(Duration.ZERO, interval, Schedulers.boundedElastic())
+        .subscribe(tick -> revocations.poll());
+  }
+
+  @Bean
+  public JwtAuthenticationManager jwtAuthenticationManager(
+      @Value("${app.jwt.secret}") final String jwtSecret, final SharedRevocations revocations) {
+    return new JwtAuthenticationManager(jwtSecret, revocations);
+  }
+
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(
+      final ServerHttpSecurity http, final JwtAuthenticationManager authenticationManager) {
+    final AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(authenticationManager);
+    jwtFilter.setServerAuthenticationConverter(
+        exchange -> {
+          final String header =
+              exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+          return header != null && header.startsWith(BEARER_PREFIX)
+              ? Mono.just(
+                  new UsernamePasswordAuthenticationToken(
+                      null, header.substring(BEARER_PREFIX.length())))
+              : Mono.empty();
+        });
+    // stateless like the main application: every request carries its token
+    jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+    return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+        .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+        .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+        .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+        .authorizeExchange(
+            exchanges ->
+                exchanges
+                    .pathMatchers("/actuator/health")
+                    .permitAll()
+                    .anyExchange()
+                    .authenticated())
+        .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+        .build();
+  }
+}
@@ -0,0 +1,115 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Revoked tokens and per-user watermarks read from the main application's revocation log ({@code
+ * app.jwt.revocation-log}), so a logout, password change or deletion there also ends access here.
+ * The file is a sequence of fixed 25-byte records (kind, expiry in epoch seconds, two longs); it is
+ * tailed by {@link #poll()}, and re-read from the start when the main application compacts it into
+ * a new file. Entries are dropped once their tokens would have expired.
+ */
+public class SharedRevocations {
+
+  static final int RECORD_BYTES = 25;
+  static final int TOKEN = 0;
+  static final int WATERMARK = 1;
+
+  private static final Logger log = LoggerFactory.getLogger(SharedRevocations.class);
+
+  private final Path file;
+  private final Clock clock;
+  private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, Long> watermarks = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Long, Long> watermarkExpiries = new ConcurrentHashMap<>();
+  private Object fileKey;
+  private long position;
+
+  public SharedRevocations(final Path file, final Clock clock) {
+    this.file = file;
+    this.clock = clock;
+  }
+
+  public boolean isRevoked(final String jti) {
+    return jti != null && revokedTokens.containsKey(jti);
+  }
+
+  /**
+   * Whether the user's tokens issued before {@code issuedAt} have been invalidated. Watermarks are
+   * kept in epoch milliseconds, as in the main application.
+   */
+  public boolean isInvalidated(final Long userId, final Date issuedAt) {
+    final Long watermark = watermarks.get(userId);
+    return watermark != null && (issuedAt == null || issuedAt.getTime() < watermark);
+  }
+
+  /** Reads the records appended since the last call and drops expired entries. */
+  public synchronized void poll() {
+    if (file == null) {
+      return;
+    }
+    try {
+      final BasicFileAttributes attributes =
+          Files.readAttributes(file, BasicFileAttributes.class);
+      if (!Objects.equals(attributes.fileKey(), fileKey) || attributes.size() < position) {
+        fileKey = attributes.fileKey();
+        position = 0;
+      }
+      final long available = (attributes.size() - position) / RECORD_BYTES * RECORD_BYTES;
+      if (available > 0) {
+        read(available);
+      }
+    } catch (final NoSuchFileException e) {
+      // nothing has been revoked yet
+    } catch (final IOException e) {
+      log.warn("Could not read revocation log {}", file, e);
+    }
+    final long now = clock.instant().getEpochSecond();
+    revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+    watermarkExpiries.forEach(
+        (userId, expiresAt) -> {
+          if (expiresAt <= now) {
+            watermarkExpiries.remove(userId, expiresAt);
+            watermarks.remove(userId);
+          }
+        });
+  }
+
+  private void read(final long bytes) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(bytes));
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      while (buffer.hasRemaining()
+          && channel.read(buffer, position + buffer.position()) >= 0) {
+        // keep reading until the buffer is full or the file ends early
+      }
+    }
+    buffer.flip();
+    while (buffer.remaining() >= RECORD_BYTES) {
+      apply(buffer.get(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+      position += RECORD_BYTES;
+    }
+  }
+
+  private void apply(final int kind, final long expiresAt, final long first, final long second) {
+    if (kind == TOKEN) {
+      revokedTokens.merge(new UUID(first, second).toString(), expiresAt, Math::max);
+    } else if (kind == WATERMARK) {
+      watermarks.merge(first, second, Math::max);
+      watermarkExpiries.merge(first, expiresAt, Math::max);
+    }
+  }
+}
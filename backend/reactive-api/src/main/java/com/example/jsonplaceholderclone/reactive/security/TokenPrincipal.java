@@ -0,0 +1,12 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import java.security.Principal;
+
+/** The user a verified token was issued to, from its {@code uid} and {@code sub} claims. */
+public record TokenPrincipal(Long id, String username) implements Principal {
+
+  @Override
+  public String getName() {
+    return username;
+  }
+}
@@ -0,0 +1,176 @@
+package com.example.jsonplaceholderclone.reactive.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveUserControllerTest {
+
+  private static final String SECRET = "testSecretKey123456789012345678901234567890";
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Test
+  void getUserById_WithValidToken_ShouldReturnUserInMainApiShape() {
+    webTestClient
+        .get()
+        .uri("/api/users/1")
+        .header("Authorization", "Bearer " + token(1L))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.id")
+        .isEqualTo(1)
+        .jsonPath("$.username")
+        .isEqualTo("Bret")
+        .jsonPath("$.address.city")
+        .isEqualTo("Gwenborough")
+        .jsonPath("$.address.geo.lat")
+        .isEqualTo("-37.3159")
+        .jsonPath("$.company.catchPhrase")
+        .isEqualTo("Multi-layered client-server neural-net")
+        .jsonPath("$.password")
+        .doesNotExist();
+  }
+
+  @Test
+  void getUserById_WithUnknownId_ShouldReturnNotFound() {
+    webTestClient
+        .get()
+        .uri("/api/users/999")
+        .header("Authorization", "Bearer " + token(1L))
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void getUserById_WithoutToken_ShouldReturnUnauthorized() {
+    webTestClient.get().uri("/api/users/1").exchange().expectStatus().isUnauthorized();
+  }
+
+  @Test
+  void getUserById_WithTokenWithoutUserId_ShouldReturnUnauthorized() {
+    webTestClient
+        .get()
+        .uri("/api/users/1")
+        .header("Authorization", "Bearer " + tokenBuilder().compact())
+        .exchange()
+        .expectStatus()
+        .isUnauthorized();
+  }
+
+  @Test
+  void getUsers_ShouldPageWithMainApiCursors() {
+    // Arrange
+    final String token = token(1L);
+    final String cursor = ReactiveUserController.encodeCursor(1);
+
+    // Act & Assert
+    webTestClient
+        .get()
+        .uri("/api/users?limit=1")
+        .header("Authorization", "Bearer " + token)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(ReactiveUserController.NEXT_CURSOR_HEADER, cursor)
+        .expectBody()
+        .jsonPath("$.length()")
+        .isEqualTo(1)
+        .jsonPath("$[0].id")
+        .isEqualTo(1);
+
+    webTestClient
+        .get()
+        .uri("/api/users?limit=1&after=" + cursor)
+        .header("Authorization", "Bearer " + token)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(ReactiveUserController.NEXT_CURSOR_HEADER, "")
+        .expectHeader()
+        .value("Link", link -> assertTrue(link.endsWith("/api/users?limit=1>; rel=\"first\"")))
+        .expectBody()
+        .jsonPath("$[0].id")
+        .isEqualTo(2)
+        .jsonPath("$[0].address")
+        .isEmpty();
+  }
+
+  @Test
+  void getUsers_WithFilterOrOtherSort_ShouldReturnBadRequest() {
+    webTestClient
+        .get()
+        .uri("/api/users?city=Gwenborough")
+        .header("Authorization", "Bearer " + token(1L))
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+    webTestClient
+        .get()
+        .uri("/api/users?sort=name")
+        .header("Authorization", "Bearer " + token(1L))
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void exportUsers_ShouldStreamNdjson() {
+    // Act
+    final List<String> lines =
+        webTestClient
+            .get()
+            .uri("/api/users/export")
+            .header("Authorization", "Bearer " + token(1L))
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+
+    // Assert
+    assertNotNull(lines);
+    assertEquals(2, lines.size());
+    assertTrue(lines.get(0).contains("\"username\":\"Bret\""));
+  }
+
+  private static String token(final Long userId) {
+    return tokenBuilder().claim("uid", userId).compact();
+  }
+
+  private static JwtBuilder tokenBuilder() {
+    final Date now = new Date();
+    return Jwts.builder()
+        .setId(UUID.randomUUID().toString())
+        .setSubject("testuser")
+        .claim("roles", List.of("ROLE_USER"))
+        .setIssuedAt(now)
+        .claim("iat_ms", now.getTime())
+        .setExpiration(new Date(now.getTime() + 3600000L))
+        .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class SecurityConfigTest {
+
+  private final SecurityConfig config = new SecurityConfig();
+
+  @Test
+  void sharedRevocations_WithoutRevocationLog_ShouldFail() {
+    // Act
+    final IllegalStateException error =
+        assertThrows(IllegalStateException.class, () -> config.sharedRevocations(" "));
+
+    // Assert
+    assertTrue(error.getMessage().contains("app.jwt.revocation-log"));
+  }
+
+  @Test
+  void sharedRevocations_WithNone_ShouldRunWithoutRevocations() {
+    // Act
+    final SharedRevocations revocations = config.sharedRevocations("none");
+
+    // Assert
+    revocations.poll();
+    assertFalse(revocations.isRevoked("any"));
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.jsonplaceholderclone.reactive.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedRevocationsTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+  @TempDir private Path dir;
+
+  @Test
+  void poll_ShouldPickUpAppendedRecords() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final SharedRevocations revocations = new SharedRevocations(file, clock);
+    final UUID first = UUID.randomUUID();
+    final UUID second = UUID.randomUUID();
+    revokeToken(file, first, 3600);
+    revocations.poll();
+
+    // Act
+    revokeToken(file, second, 3600);
+    revocations.poll();
+
+    // Assert
+    assertTrue(revocations.isRevoked(first.toString()));
+    assertTrue(revocations.isRevoked(second.toString()));
+    assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+  }
+
+  @Test
+  void poll_ShouldApplyMillisecondWatermarks() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final SharedRevocations revocations = new SharedRevocations(file, clock);
+    final long watermark = clock.millis() + 500;
+    append(
+        file,
+        SharedRevocations.WATERMARK,
+        clock.instant().getEpochSecond() + 3600,
+        42L,
+        watermark);
+
+    // Act
+    revocations.poll();
+
+    // Assert
+    assertTrue(revocations.isInvalidated(42L, new Date(watermark - 1)));
+    assertFalse(revocations.isInvalidated(42L, new Date(watermark)));
+    assertFalse(revocations.isInvalidated(7L, new Date(watermark - 1)));
+  }
+
+  @Test
+  void poll_AfterExpiry_ShouldDropEntries() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final SharedRevocations revocations = new SharedRevocations(file, clock);
+    final UUID jti = UUID.randomUUID();
+    final long now = clock.instant().getEpochSecond();
+    revokeToken(file, jti, 60);
+    append(file, SharedRevocations.WATERMARK, now + 60, 42L, now * 1000);
+    revocations.poll();
+
+    // Act
+    clock.advance(Duration.ofMinutes(2));
+    revocations.poll();
+
+    // Assert
+    assertFalse(revocations.isRevoked(jti.toString()));
+    assertFalse(revocations.isInvalidated(42L, Date.from(Instant.EPOCH)));
+  }
+
+  @Test
+  void poll_AfterCompactionIntoNewFile_ShouldRereadFromStart() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final SharedRevocations revocations = new SharedRevocations(file, clock);
+    revokeToken(file, UUID.randomUUID(), 3600);
+    revokeToken(file, UUID.randomUUID(), 3600);
+    revocations.poll();
+    final Path compacted = dir.resolve("revocations.log.tmp");
+    final UUID kept = UUID.randomUUID();
+    revokeToken(compacted, kept, 3600);
+
+    // Act
+    Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+    revocations.poll();
+
+    // Assert
+    assertTrue(revocations.isRevoked(kept.toString()));
+  }
+
+  @Test
+  void poll_WithoutFile_ShouldRevokeNothing() {
+    // Arrange
+    final SharedRevocations revocations = new SharedRevocations(dir.resolve("missing.log"), clock);
+
+    // Act
+    revocations.poll();
+
+    // Assert
+    assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+  }
+
+  private void revokeToken(final Path file, final UUID jti, final long expiresInSeconds)
+      throws IOException {
+    append(
+        file,
+        SharedRevocations.TOKEN,
+        clock.instant().getEpochSecond() + expiresInSeconds,
+        jti.getMostSignificantBits(),
+        jti.getLeastSignificantBits());
+  }
+
+  private static void append(
+      final Path file, final int kind, final long expiresAt, final long first, final long second)
+      throws IOException {
+    try (OutputStream stream =
+            Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        DataOutputStream out = new DataOutputStream(stream)) {
+      out.writeByte(kind);
+      out.writeLong(expiresAt);
+      out.writeLong(first);
+      out.writeLong(second);
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    void advance(final Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,12 @@
+INSERT INTO companies (id, name, catch_phrase, bs)
+VALUES (1, 'Romaguera-Crona', 'Multi-layered client-server neural-net', 'harness real-time e-markets');
+
+INSERT INTO addresses (id, street, suite, city, zipcode, lat, lng)
+VALUES (1, 'Kulas Light', 'Apt. 556', 'Gwenborough', '92998-3874', -37.3159, 81.1496);
+
+INSERT INTO users (id, name, username, email, phone, website, password, address_id, company_id)
+VALUES (1, 'Leanne Graham', 'Bret', 'Sincere@april.biz', '1-770-736-8031 x56442', 'hildegard.org',
+        '{bcrypt}$2a$10$hash', 1, 1);
+
+INSERT INTO users (id, name, username, email)
+VALUES (2, 'Ervin Howell', 'Antonette', 'Shanna@melissa.tv');
@@ -0,0 +1,33 @@
+-- The tables of the main application's schema.sql that this API reads
+CREATE TABLE companies (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    catch_phrase VARCHAR(255),
+    bs VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE addresses (
+    id BIGINT PRIMARY KEY,
+    street VARCHAR(255) NOT NULL,
+    suite VARCHAR(255),
+    city VARCHAR(255) NOT NULL,
+    zipcode VARCHAR(255),
+    lat DOUBLE PRECISION,
+    lng DOUBLE PRECISION,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    email_domain VARCHAR(255),
+    phone VARCHAR(255),
+    website VARCHAR(255),
+    password VARCHAR(255),
+    address_id BIGINT REFERENCES addresses(id),
+    company_id BIGINT REFERENCES companies(id),
+    version BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,42 @@
+package com.example.jsonplaceholderclone.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import javax.cache.Cache;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the {@code cache.*} meters (gets by hit/miss, puts, evictions, removals) of every
+ * second-level cache region. Hibernate's own per-region statistics are bound separately as {@code
+ * hibernate.second.level.cache.*} by the Hibernate metrics auto-configuration.
+ */
+@Component
+public class EntityCacheMetrics implements MeterBinder {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public EntityCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    final CacheImplementor cache =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+    if (!(cache.getRegionFactory() instanceof JCacheRegionFactory regionFactory)) {
+      return;
+    }
+    for (final String regionName : cache.getCacheRegionNames()) {
+      final Cache<Object, Object> region = regionFactory.getCacheManager().getCache(regionName);
+      if (region != null) {
+        JCacheMetrics.monitor(registry, region, Tags.empty());
+      }
+    }
+  }
+}
@@ -0,0 +1,213 @@
+package com.example.jsonplaceholderclone.cache;
+
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserPasswordsStoredEvent;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serialized {@code GET /api/users/{id}} bodies, keyed by user id, as UTF-8 JSON plus a gzip
+ * variant built on first request. Least recently used entries are dropped once the cached bytes
+ * exceed {@code app.cache.user-json.max-bytes}, and any entry is dropped {@code
+ * app.cache.user-json.ttl} after it was put, the same bound as the second-level cache in {@code
+ * ehcache.xml}.
+ *
+ * <p>Entries are evicted after a user update or delete commits. A reader that loaded a user before
+ * such an eviction must not put its now stale bytes back, so {@link #put} takes the {@link
+ * #stamp()} read before loading and is ignored if any eviction happened since. The TTL bounds how
+ * long an entry can outlive a change that bypassed those events, such as a direct database write.
+ */
+@Component
+public class UserJsonCache implements MeterBinder {
+
+  private static final String CACHE_NAME = "user-json";
+  // rough per-entry cost of the map node, entry object and array headers
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+  private long bytes;
+  private long invalidations;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @Autowired
+  public UserJsonCache(
+      @Value("${app.cache.user-json.max-bytes:67108864}") final long maxBytes,
+      @Value("${app.cache.user-json.ttl:10m}") final Duration ttl) {
+    this(maxBytes, ttl, System::nanoTime);
+  }
+
+  UserJsonCache(final long maxBytes, final Duration ttl, final LongSupplier nanoClock) {
+    this.maxBytes = maxBytes;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  public Entry get(final Long id) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(id);
+      if (entry != null && nanoClock.getAsLong() - entry.expiresAt >= 0) {
+        entries.remove(id);
+        bytes -= entry.size();
+        evictions.increment();
+        entry = null;
+      }
+    }
+    (entry == null ? misses : hits).increment();
+    return entry;
+  }
+
+  public synchronized long stamp() {
+    return invalidations;
+  }
+
+  public synchronized void put(final Long id, final Entry entry, final long stamp) {
+    if (stamp != invalidations) {
+      return;
+    }
+    entry.expiresAt = nanoClock.getAsLong() + ttlNanos;
+    final Entry previous = entries.put(id, entry);
+    if (previous != null) {
+      bytes -= previous.size();
+    }
+    bytes += entry.size();
+    trim();
+  }
+
+  /** The gzip body for an entry, compressed once and then kept with the entry. */
+  public byte[] gzip(final Long id, final Entry entry) {
+    byte[] gzip = entry.gzip;
+    if (gzip == null) {
+      gzip = compress(entry.json);
+      synchronized (this) {
+        if (entry.gzip == null) {
+          entry.gzip = gzip;
+          if (entries.get(id) == entry) {
+            bytes += gzip.length;
+            trim();
+          }
+        }
+      }
+    }
+    return gzip;
+  }
+
+  public synchronized void evict(final Long id) {
+    invalidations++;
+    final Entry removed = entries.remove(id);
+    if (removed != null) {
+      bytes -= removed.size();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserSaved(final UserSavedEvent event) {
+    evict(event.getUser().getId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserPasswordsStored(final UserPasswordsStoredEvent event) {
+    // the bodies are unchanged, but their ETags carry the bumped versions
+    event.getUserIds().forEach(this::evict);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(final UserDeletedEvent event) {
+    evict(event.getUserId());
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    final Tags tags = Tags.of("cache", CACHE_NAME);
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+        .tags(tags)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+        .tags(tags)
+        .tag("result", "miss")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+        .tags(tags)
+        .register(registry);
+    Gauge.builder("cache.size", this, UserJsonCache::size).tags(tags).register(registry);
+    Gauge.builder("cache.bytes", this, UserJsonCache::bytes)
+        .tags(tags)
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long bytes() {
+    return bytes;
+  }
+
+  private void trim() {
+    final Iterator<Entry> eldest = entries.values().iterator();
+    while (bytes > maxBytes && eldest.hasNext()) {
+      bytes -= eldest.next().size();
+      eldest.remove();
+      evictions.increment();
+    }
+  }
+
+  private static byte[] compress(final byte[] json) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 32);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(json);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** One user's serialized body and the ETag of its identity representation. */
+  public static final class Entry {
+
+    @Getter private final String etag;
+    @Getter private final byte[] json;
+    private volatile byte[] gzip;
+    private long expiresAt;
+
+    public Entry(final String etag, final byte[] json) {
+      this.etag = etag;
+      this.json = json;
+    }
+
+    /** Strong validators are per representation, so the gzip body gets its own. */
+    public String getGzipETag() {
+      return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private long size() {
+      final byte[] compressed = gzip;
+      return ENTRY_OVERHEAD_BYTES + json.length + (compressed == null ? 0 : compressed.length);
+    }
+  }
+}
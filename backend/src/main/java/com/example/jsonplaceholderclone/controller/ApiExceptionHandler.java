@@ -0,0 +1,19 @@
+package com.example.jsonplaceholderclone.controller;
+
+import com.example.jsonplaceholderclone.security.PasswordHashingBusyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+  @ExceptionHandler(PasswordHashingBusyException.class)
+  public ResponseEntity<Void> passwordHashingBusy(final PasswordHashingBusyException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .build();
+  }
+}
@@ -1,10 +1,13 @@
 package com.example.jsonplaceholderclone.controller;
 
+import com.example.jsonplaceholderclone.datasource.PrimaryReads;
 import com.example.jsonplaceholderclone.model.User;
 import com.example.jsonplaceholderclone.security.JwtTokenProvider;
+import com.example.jsonplaceholderclone.security.TokenDenylist;
 import com.example.jsonplaceholderclone.service.UserService;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,6 +15,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -21,14 +25,17 @@ public class AuthController {
 
   private final AuthenticationManager authenticationManager;
   private final JwtTokenProvider tokenProvider;
+  private final TokenDenylist tokenDenylist;
   private final UserService userService;
 
   public AuthController(
       final AuthenticationManager authenticationManager,
       final JwtTokenProvider tokenProvider,
+      final TokenDenylist tokenDenylist,
       final UserService userService) {
     this.authenticationManager = authenticationManager;
     this.tokenProvider = tokenProvider;
+    this.tokenDenylist = tokenDenylist;
     this.userService = userService;
   }
 
@@ -47,13 +54,31 @@ public class AuthController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Revokes the bearer token until it expires. A missing, invalid or expired token has nothing
+   * left to revoke, so logging out is always {@code 204}.
+   */
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+          final String authorization) {
+    if (authorization != null && authorization.startsWith("Bearer ")) {
+      tokenProvider
+          .verify(authorization.substring(7))
+          .filter(claims -> claims.getId() != null)
+          .ifPresent(claims -> tokenDenylist.revoke(claims.getId(), claims.getExpiration()));
+    }
+    return ResponseEntity.noContent().build();
+  }
+
   @PostMapping("/register")
   public ResponseEntity<?> registerUser(@RequestBody final User user) {
-    if (userService.existsByUsername(user.getUsername())) {
+    // checked on the primary: a replica may not have a registration committed moments ago yet
+    if (PrimaryReads.call(() -> userService.existsByUsername(user.getUsername()))) {
       return ResponseEntity.badRequest().body("Username is already taken!");
     }
 
-    if (userService.existsByEmail(user.getEmail())) {
+    if (PrimaryReads.call(() -> userService.existsByEmail(user.getEmail()))) {
       return ResponseEntity.badRequest().body("Email is already in use!");
     }
 
@@ -1,32 +1,223 @@
 package com.example.jsonplaceholderclone.controller;
 
+import com.example.jsonplaceholderclone.cache.UserJsonCache;
+import com.example.jsonplaceholderclone.datasource.PrimaryReads;
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.BulkUserRequest;
+import com.example.jsonplaceholderclone.dto.CursorPage;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.dto.UserBatch;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserPageRequest;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.dto.UserVersion;
 import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.security.PasswordHashingBusyException;
 import com.example.jsonplaceholderclone.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int MAX_SEARCH_PAGE_SIZE = 100;
+  // relevance pages are computed from the top of the ranking, so deep offsets get expensive
+  private static final int MAX_SEARCH_OFFSET = 1000;
+  private static final int MAX_SUGGESTIONS = 50;
+  private static final int MAX_NEAREST = 100;
+  private static final int EXPORT_FLUSH_INTERVAL = 256;
+  private static final int MAX_BATCH_SIZE = 10_000;
+
   private final UserService userService;
+  private final UserJsonCache userJsonCache;
+  private final ObjectWriter userWriter;
 
-  public UserController(final UserService userService) {
+  public UserController(
+      final UserService userService,
+      final UserJsonCache userJsonCache,
+      final ObjectMapper objectMapper) {
     this.userService = userService;
+    this.userJsonCache = userJsonCache;
+    this.userWriter = objectMapper.writerFor(User.class);
   }
 
+  /**
+   * One page of users, 50 unless {@code limit} asks for more. Every response carries {@code
+   * X-Next-Cursor}, empty on the last page, and a {@code Link} to the first page plus the next one
+   * while there is more, so a client can tell a truncated list from a complete one.
+   */
   @GetMapping
-  public ResponseEntity<List<User>> getAllUsers() {
-    return ResponseEntity.ok(userService.getAllUsers());
+  public ResponseEntity<?> getAllUsers(
+      @ModelAttribute final UserFilter filter,
+      @RequestParam(defaultValue = "id") final String sort,
+      @RequestParam(defaultValue = "50") final int limit,
+      @RequestParam(required = false) final String after,
+      @RequestParam(defaultValue = "false") final boolean count,
+      @RequestParam(required = false) final String fields,
+      final WebRequest webRequest) {
+    try {
+      final UserPageRequest request =
+          new UserPageRequest(
+              filter,
+              UserSort.parse(sort),
+              after,
+              Math.max(1, Math.min(limit, MAX_PAGE_SIZE)),
+              count);
+      final UserFieldSet fieldSet = fields == null ? null : UserFieldSet.parse(fields);
+      // Projected rows carry no versions, so their tag always comes from the narrow query.
+      // checkNotModified also puts the ETag on the response when the body has to be sent.
+      final boolean validated = fieldSet != null || hasValidator(webRequest);
+      if (validated && webRequest.checkNotModified(userService.getUsersPageETag(request))) {
+        return null;
+      }
+      if (fieldSet != null) {
+        return pageResponse(
+            userService.getUserFieldsPage(request, fieldSet), "after", null, true);
+      }
+      final CursorPage<User> page = userService.getUsersPage(request);
+      return pageResponse(page, "after", validated ? null : pageETag(page), true);
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<List<User>> searchUsers(
+      @RequestParam("q") final String query,
+      @RequestParam(defaultValue = "20") final int limit,
+      @RequestParam(defaultValue = "0") final int offset) {
+    if (offset < 0 || offset > MAX_SEARCH_OFFSET) {
+      return ResponseEntity.badRequest().build();
+    }
+    final SearchQuery searchQuery;
+    try {
+      searchQuery = SearchQuery.parse(query);
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    final int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_PAGE_SIZE));
+    final CursorPage<User> page = userService.searchUsers(searchQuery, offset, pageSize);
+    if (offset + pageSize > MAX_SEARCH_OFFSET) {
+      // the next page would start past the deepest offset served, so there is no link to follow
+      return pageResponse(
+          new CursorPage<>(page.getItems(), null, null), "offset", null, false);
+    }
+    return pageResponse(page, "offset", null, false);
+  }
+
+  @GetMapping("/suggest")
+  public ResponseEntity<List<String>> suggest(
+      @RequestParam final String prefix, @RequestParam(defaultValue = "10") final int limit) {
+    if (prefix.isBlank()) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(
+        userService.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+  }
+
+  @GetMapping("/near")
+  public ResponseEntity<List<UserDistance>> findNearestUsers(
+      @RequestParam final double lat,
+      @RequestParam final double lng,
+      @RequestParam final double radiusKm,
+      @RequestParam(defaultValue = "10") final int limit) {
+    final GeoRadius area;
+    try {
+      area = GeoRadius.of(lat, lng, radiusKm);
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(
+        userService.findNearestUsers(area, Math.max(1, Math.min(limit, MAX_NEAREST))));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void exportUsers(final HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    // commit the status line and headers before the first row is read
+    response.flushBuffer();
+
+    final NdjsonWriter writer = new NdjsonWriter(userWriter, response.getOutputStream());
+    try {
+      userService.exportUsers(writer);
+      writer.flush();
+    } catch (final UncheckedIOException e) {
+      // the client went away; the failed write already unwound the stream and closed the cursor
+    }
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<User> getUserById(@PathVariable final Long id) {
-    return userService
-        .getUserById(id)
-        .map(ResponseEntity::ok)
-        .orElse(ResponseEntity.notFound().build());
+  public ResponseEntity<?> getUserById(
+      @PathVariable final Long id,
+      @RequestParam(required = false) final String fields,
+      final WebRequest webRequest)
+      throws JsonProcessingException {
+    final UserFieldSet fieldSet;
+    try {
+      fieldSet = fields == null ? null : UserFieldSet.parse(fields);
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (fieldSet != null) {
+      // a revalidation is answered from the version columns alone, before the user is loaded
+      final Optional<UserVersion> version = userService.getUserVersion(id);
+      if (version.isEmpty()) {
+        return ResponseEntity.notFound().build();
+      }
+      if (webRequest.checkNotModified(version.get().etag())) {
+        return null;
+      }
+      return userService
+          .getUserFieldsById(id, fieldSet)
+          .<ResponseEntity<?>>map(ResponseEntity::ok)
+          .orElse(ResponseEntity.notFound().build());
+    }
+    // hot users are a cache lookup and one write: no query, no serialization
+    final UserJsonCache.Entry entry = cachedJson(id);
+    if (entry == null) {
+      return ResponseEntity.notFound().build();
+    }
+    final boolean gzip = acceptsGzip(webRequest);
+    if (webRequest.checkNotModified(gzip ? entry.getGzipETag() : entry.getEtag())) {
+      return null;
+    }
+    final ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response
+          .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+          .body(userJsonCache.gzip(id, entry));
+    }
+    return response.body(entry.getJson());
   }
 
   @PostMapping
@@ -34,19 +225,192 @@ public class UserController {
     return ResponseEntity.ok(userService.createUser(user));
   }
 
+  /**
+   * Inserts the users and answers 202 with the password job while their passwords are hashed in
+   * the background. The raw passwords are kept in memory only: users still pending when the
+   * process stops keep no password, are logged at the next start and need one set with PUT.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<List<User>> createUsers(@RequestBody final List<User> users) {
+    if (users.isEmpty() || users.size() > MAX_BATCH_SIZE) {
+      return ResponseEntity.badRequest().build();
+    }
+    final UserBatch batch = userService.createUsers(users);
+    if (batch.getPasswordJob() == null) {
+      return ResponseEntity.ok(batch.getUsers());
+    }
+    // the users exist, but their passwords are still being hashed
+    return ResponseEntity.accepted()
+        .location(
+            ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/jobs/{id}")
+                .buildAndExpand(batch.getPasswordJob().getId())
+                .toUri())
+        .body(batch.getUsers());
+  }
+
+  @GetMapping("/batch/jobs/{id}")
+  public ResponseEntity<PasswordJob> getPasswordJob(@PathVariable final String id) {
+    return userService
+        .getPasswordJob(id)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<User> updateUser(
       @PathVariable final Long id, @RequestBody final User user) {
     try {
       return ResponseEntity.ok(userService.updateUser(id, user));
+    } catch (final PasswordHashingBusyException e) {
+      // not a missing user: let ApiExceptionHandler answer 503
+      throw e;
+    } catch (final OptimisticLockingFailureException e) {
+      // a concurrent update of the same user committed first
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
     } catch (final RuntimeException e) {
       return ResponseEntity.notFound().build();
     }
   }
 
+  @PatchMapping("/bulk")
+  public ResponseEntity<BulkResult> updateUsers(@RequestBody final BulkUserRequest request) {
+    try {
+      return ResponseEntity.ok(userService.updateUsers(request));
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  @DeleteMapping("/bulk")
+  public ResponseEntity<BulkResult> deleteUsers(@RequestBody final BulkUserRequest request) {
+    try {
+      return ResponseEntity.ok(userService.deleteUsers(request));
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteUser(@PathVariable final Long id) {
     userService.deleteUser(id);
     return ResponseEntity.ok().build();
   }
+
+  private UserJsonCache.Entry cachedJson(final Long id) throws JsonProcessingException {
+    final UserJsonCache.Entry cached = userJsonCache.get(id);
+    if (cached != null) {
+      return cached;
+    }
+    // taken before the read, so bytes of a user updated meanwhile are not cached
+    final long stamp = userJsonCache.stamp();
+    // cached bytes outlive replica lag, so they are only ever built from the primary
+    final Optional<User> user = PrimaryReads.call(() -> userService.getUserById(id));
+    if (user.isEmpty()) {
+      return null;
+    }
+    final UserJsonCache.Entry entry =
+        new UserJsonCache.Entry(
+            UserVersion.of(user.get()).etag(), userWriter.writeValueAsBytes(user.get()));
+    userJsonCache.put(id, entry, stamp);
+    return entry;
+  }
+
+  private static boolean acceptsGzip(final WebRequest webRequest) {
+    final String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (final String coding : acceptEncoding.split(",")) {
+      final String[] parts = coding.trim().split(";");
+      if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+        return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasValidator(final WebRequest webRequest) {
+    return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+  }
+
+  private static String pageETag(final CursorPage<User> page) {
+    return UserVersion.pageETag(
+        page.getItems().stream().map(UserVersion::of).toList(),
+        page.getNextCursor() != null,
+        page.getApproximateTotal());
+  }
+
+  /**
+   * With {@code linkEveryPage}, the last page also gets an empty {@code X-Next-Cursor} and every
+   * page a {@code rel="first"} link.
+   */
+  private static <T> ResponseEntity<List<T>> pageResponse(
+      final CursorPage<T> page,
+      final String cursorParam,
+      final String etag,
+      final boolean linkEveryPage) {
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (etag != null) {
+      response.eTag(etag);
+    }
+    final List<String> links = new ArrayList<>();
+    if (linkEveryPage) {
+      final String first =
+          ServletUriComponentsBuilder.fromCurrentRequest()
+              .replaceQueryParam(cursorParam)
+              .toUriString();
+      links.add("<" + first + ">; rel=\"first\"");
+    }
+    if (page.getNextCursor() != null) {
+      final String next =
+          ServletUriComponentsBuilder.fromCurrentRequest()
+              .replaceQueryParam(cursorParam, page.getNextCursor())
+              .toUriString();
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+      links.add("<" + next + ">; rel=\"next\"");
+    } else if (linkEveryPage) {
+      response.header(NEXT_CURSOR_HEADER, "");
+    }
+    if (!links.isEmpty()) {
+      response.header(HttpHeaders.LINK, String.join(", ", links));
+    }
+    if (page.getApproximateTotal() != null) {
+      response.header(TOTAL_COUNT_HEADER, String.valueOf(page.getApproximateTotal()));
+    }
+    return response.body(page.getItems());
+  }
+
+  private static final class NdjsonWriter implements Consumer<User> {
+
+    private final ObjectWriter objectWriter;
+    private final OutputStream out;
+    private long written;
+
+    private NdjsonWriter(final ObjectWriter objectWriter, final OutputStream out) {
+      this.objectWriter = objectWriter;
+      this.out = out;
+    }
+
+    @Override
+    public void accept(final User user) {
+      try {
+        out.write(objectWriter.writeValueAsBytes(user));
+        out.write('\n');
+        if (++written % EXPORT_FLUSH_INTERVAL == 1) {
+          out.flush();
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void flush() {
+      try {
+        out.flush();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
 }
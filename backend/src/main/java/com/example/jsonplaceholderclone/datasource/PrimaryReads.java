@@ -0,0 +1,42 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks work on the current thread whose read-only transactions must still read the primary,
+ * because they need a write that replicas may not have applied yet.
+ */
+public final class PrimaryReads {
+
+  private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+  private PrimaryReads() {}
+
+  public static boolean isActive() {
+    return Boolean.TRUE.equals(ACTIVE.get());
+  }
+
+  public static <T> T call(final Supplier<T> work) {
+    final boolean activated = activate();
+    try {
+      return work.get();
+    } finally {
+      if (activated) {
+        deactivate();
+      }
+    }
+  }
+
+  /** Activates primary reads unless already active; true if this call activated them. */
+  static boolean activate() {
+    if (isActive()) {
+      return false;
+    }
+    ACTIVE.set(Boolean.TRUE);
+    return true;
+  }
+
+  static void deactivate() {
+    ACTIVE.remove();
+  }
+}
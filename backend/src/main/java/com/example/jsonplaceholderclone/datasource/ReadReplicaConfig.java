@@ -0,0 +1,73 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Read/write split. With {@code app.datasource.replica-urls} set, the application's DataSource is
+ * wrapped in a {@link LazyConnectionDataSourceProxy} that defers fetching a connection until the
+ * first statement, by which time the transaction has marked it read-only. Read-only transactions
+ * then get a replica connection from {@link ReplicaPools}; everything else uses the primary pool.
+ * Without replica URLs the DataSource is left as it is.
+ */
+@Configuration
+public class ReadReplicaConfig {
+
+  @Bean(destroyMethod = "close")
+  public ReplicaPools replicaPools(
+      @Value("${app.datasource.replica-urls:}") final String[] urls,
+      @Value("${app.datasource.replica-username:${spring.datasource.username:}}")
+          final String username,
+      @Value("${app.datasource.replica-password:${spring.datasource.password:}}")
+          final String password,
+      @Value("${app.datasource.replica-pool-size:10}") final int poolSize,
+      @Value("${app.datasource.replica-connection-timeout:2s}") final Duration connectionTimeout,
+      @Value("${app.datasource.replica-health-check-interval:5s}")
+          final Duration healthCheckInterval) {
+    return new ReplicaPools(
+        List.of(urls), username, password, poolSize, connectionTimeout, healthCheckInterval);
+  }
+
+  @Bean
+  public static BeanPostProcessor readReplicaRoutingPostProcessor(
+      final ObjectProvider<ReplicaPools> replicaPools) {
+    return new RoutingPostProcessor(replicaPools);
+  }
+
+  /** Ordered, so it wraps the pool before the unordered SQL monitoring proxy wraps the result. */
+  private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ReplicaPools> replicaPools;
+
+    private RoutingPostProcessor(final ObjectProvider<ReplicaPools> replicaPools) {
+      this.replicaPools = replicaPools;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+      if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+        return bean;
+      }
+      final ReplicaPools replicas = replicaPools.getObject();
+      if (replicas.isEmpty()) {
+        return bean;
+      }
+      final LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+      routing.setReadOnlyDataSource(replicas.readOnlyDataSource(primary));
+      return routing;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Read-your-writes for the read/write split: after a user's successful write request, that user's
+ * requests read the primary for {@code app.datasource.read-your-writes-window}, long enough for
+ * the replicas to catch up. Other users keep reading replicas.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+  private static final int PRUNE_THRESHOLD = 10_000;
+
+  private final long windowNanos;
+  private final ConcurrentHashMap<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+  public ReadYourWritesFilter(
+      @Value("${app.datasource.read-your-writes-window:5s}") final Duration window) {
+    this.windowNanos = window.toNanos();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      final HttpServletRequest request,
+      final HttpServletResponse response,
+      final FilterChain filterChain)
+      throws ServletException, IOException {
+    final Principal principal = request.getUserPrincipal();
+    final String user = principal == null ? null : principal.getName();
+    final Long until = user == null ? null : primaryUntil.get(user);
+    final boolean activated =
+        until != null && until - System.nanoTime() > 0 && PrimaryReads.activate();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (activated) {
+        PrimaryReads.deactivate();
+      }
+      if (user != null
+          && WRITE_METHODS.contains(request.getMethod())
+          && response.getStatus() < 400) {
+        recordWrite(user, System.nanoTime());
+      }
+    }
+  }
+
+  private void recordWrite(final String user, final long now) {
+    if (primaryUntil.size() > PRUNE_THRESHOLD) {
+      primaryUntil.values().removeIf(until -> until - now <= 0);
+    }
+    primaryUntil.put(user, now + windowNanos);
+  }
+}
@@ -0,0 +1,167 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Connection pools to read replicas. {@link #readOnlyDataSource} hands out connections round-robin
+ * over the replicas that are currently healthy. A replica is marked unhealthy when it fails to
+ * give a connection or fails the periodic validity check, and healthy again once the check
+ * passes. Reads fall back to the primary when no replica is healthy, and while {@link
+ * PrimaryReads} is active.
+ */
+public class ReplicaPools implements MeterBinder, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaPools.class);
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final List<Replica> replicas = new ArrayList<>();
+  private final AtomicInteger next = new AtomicInteger();
+  private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+  private final ScheduledExecutorService healthChecks;
+
+  public ReplicaPools(
+      final List<String> urls,
+      final String username,
+      final String password,
+      final int poolSize,
+      final Duration connectionTimeout,
+      final Duration healthCheckInterval) {
+    for (int i = 0; i < urls.size(); i++) {
+      final HikariConfig config = new HikariConfig();
+      config.setPoolName("replica-" + (i + 1));
+      config.setJdbcUrl(urls.get(i));
+      config.setUsername(username);
+      config.setPassword(password);
+      config.setMaximumPoolSize(poolSize);
+      config.setReadOnly(true);
+      config.setConnectionTimeout(connectionTimeout.toMillis());
+      // a replica that is down at startup is skipped until its health check passes
+      config.setInitializationFailTimeout(-1);
+      config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters));
+      replicas.add(new Replica(config.getPoolName(), new HikariDataSource(config)));
+    }
+    if (replicas.isEmpty()) {
+      healthChecks = null;
+      return;
+    }
+    healthChecks =
+        Executors.newSingleThreadScheduledExecutor(
+            new CustomizableThreadFactory("replica-health-"));
+    healthChecks.scheduleWithFixedDelay(
+        this::checkHealth, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public boolean isEmpty() {
+    return replicas.isEmpty();
+  }
+
+  public int healthyCount() {
+    return (int) replicas.stream().filter(replica -> replica.healthy).count();
+  }
+
+  /** Replica connections for read-only transactions, with {@code primary} as the fallback. */
+  public DataSource readOnlyDataSource(final DataSource primary) {
+    return new AbstractDataSource() {
+      @Override
+      public Connection getConnection() throws SQLException {
+        return connection(primary);
+      }
+
+      @Override
+      public Connection getConnection(final String username, final String password)
+          throws SQLException {
+        return connection(primary);
+      }
+    };
+  }
+
+  /** Validates a connection of every replica and updates its health. */
+  public void checkHealth() {
+    for (final Replica replica : replicas) {
+      boolean valid;
+      try (Connection connection = replica.dataSource.getConnection()) {
+        valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+      } catch (final SQLException e) {
+        valid = false;
+      }
+      replica.setHealthy(valid);
+    }
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("db.replicas.healthy", this, ReplicaPools::healthyCount)
+        .description("Read replicas currently used for read-only transactions")
+        .register(registry);
+    meters.add(registry);
+  }
+
+  @Override
+  public void close() {
+    if (healthChecks != null) {
+      healthChecks.shutdownNow();
+    }
+    replicas.forEach(replica -> replica.dataSource.close());
+  }
+
+  private Connection connection(final DataSource primary) throws SQLException {
+    if (!PrimaryReads.isActive()) {
+      final int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+      for (int i = 0; i < replicas.size(); i++) {
+        final Replica replica = replicas.get((start + i) % replicas.size());
+        if (!replica.healthy) {
+          continue;
+        }
+        try {
+          return replica.dataSource.getConnection();
+        } catch (final SQLException e) {
+          replica.setHealthy(false);
+        }
+      }
+    }
+    return primary.getConnection();
+  }
+
+  private static final class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private volatile boolean healthy = true;
+
+    private Replica(final String name, final HikariDataSource dataSource) {
+      this.name = name;
+      this.dataSource = dataSource;
+    }
+
+    private void setHealthy(final boolean nowHealthy) {
+      if (healthy != nowHealthy) {
+        healthy = nowHealthy;
+        if (nowHealthy) {
+          log.info("Read replica {} is healthy again", name);
+        } else {
+          log.warn("Read replica {} is unhealthy; its reads go to the other replicas", name);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.jsonplaceholderclone.dto;
+
+import lombok.Data;
+
+/** Rows affected per table by a bulk update or delete. */
+@Data
+public class BulkResult {
+
+  private final long users;
+  private final long addresses;
+  private final long companies;
+
+  public BulkResult plus(final BulkResult other) {
+    return new BulkResult(
+        users + other.users, addresses + other.addresses, companies + other.companies);
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.jsonplaceholderclone.dto;
+
+import com.example.jsonplaceholderclone.model.User;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Body of {@code PATCH /api/users/bulk} and {@code DELETE /api/users/bulk}. Users are selected by
+ * {@code ids}, by {@code filter}, or by both (a user must then match both). {@code set} is only
+ * read by the update: its non-null name, phone, website, address and company fields are written to
+ * every selected user.
+ */
+@Data
+public class BulkUserRequest {
+
+  private List<Long> ids;
+  private UserFilter filter;
+  private User set;
+
+  public boolean hasIds() {
+    return ids != null && !ids.isEmpty();
+  }
+
+  public UserFilter filterOrEmpty() {
+    return filter == null ? new UserFilter() : filter;
+  }
+}
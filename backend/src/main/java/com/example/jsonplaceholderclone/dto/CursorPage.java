@@ -0,0 +1,12 @@
+package com.example.jsonplaceholderclone.dto;
+
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CursorPage<T> {
+
+  private final List<T> items;
+  private final String nextCursor;
+  private final Long approximateTotal;
+}
@@ -0,0 +1,84 @@
+package com.example.jsonplaceholderclone.dto;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * A circle on the earth's surface for proximity queries. The bounding box that encloses it is what
+ * the {@code addresses(lat, lng)} index scans; {@link #maxHaversine} is the exact check inside it.
+ */
+@Getter
+public final class GeoRadius {
+
+  public static final double MAX_RADIUS_KM = 1000;
+  static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private final double lat;
+  private final double lng;
+  private final double radiusKm;
+  private final double minLat;
+  private final double maxLat;
+  // [min, max] pairs; two when the box crosses the antimeridian, none when it covers a pole
+  private final List<double[]> lngRanges;
+
+  private GeoRadius(final double lat, final double lng, final double radiusKm) {
+    this.lat = lat;
+    this.lng = lng;
+    this.radiusKm = radiusKm;
+
+    // J. P. Matuschek, "Finding Points Within a Distance of a Latitude/Longitude"
+    final double angular = radiusKm / EARTH_RADIUS_KM;
+    final double latRad = Math.toRadians(lat);
+    final double minLatRad = latRad - angular;
+    final double maxLatRad = latRad + angular;
+    if (minLatRad <= -Math.PI / 2 || maxLatRad >= Math.PI / 2) {
+      // the circle contains a pole, so every longitude is in range
+      this.minLat = Math.toDegrees(Math.max(minLatRad, -Math.PI / 2));
+      this.maxLat = Math.toDegrees(Math.min(maxLatRad, Math.PI / 2));
+      this.lngRanges = List.of();
+      return;
+    }
+    this.minLat = Math.toDegrees(minLatRad);
+    this.maxLat = Math.toDegrees(maxLatRad);
+    final double deltaLng = Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(latRad)));
+    final double minLng = lng - deltaLng;
+    final double maxLng = lng + deltaLng;
+    if (minLng < -180) {
+      this.lngRanges = List.of(new double[] {minLng + 360, 180}, new double[] {-180, maxLng});
+    } else if (maxLng > 180) {
+      this.lngRanges = List.of(new double[] {minLng, 180}, new double[] {-180, maxLng - 360});
+    } else {
+      this.lngRanges = List.of(new double[] {minLng, maxLng});
+    }
+  }
+
+  public static GeoRadius of(final double lat, final double lng, final double radiusKm) {
+    if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+      throw new IllegalArgumentException("Coordinates out of range: " + lat + "," + lng);
+    }
+    if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+      throw new IllegalArgumentException("Radius must be in (0, " + MAX_RADIUS_KM + "] km");
+    }
+    return new GeoRadius(lat, lng, radiusKm);
+  }
+
+  /**
+   * The haversine term {@code a} of a point at exactly the radius; points inside the circle have a
+   * smaller one, so queries can filter and order on it without the square root and arcsine.
+   */
+  public double maxHaversine() {
+    return Math.pow(Math.sin(radiusKm / (2 * EARTH_RADIUS_KM)), 2);
+  }
+
+  /** Great-circle (haversine) distance from the centre. */
+  public double distanceKm(final double otherLat, final double otherLng) {
+    final double dLat = Math.toRadians(otherLat - lat);
+    final double dLng = Math.toRadians(otherLng - lng);
+    final double a =
+        Math.pow(Math.sin(dLat / 2), 2)
+            + Math.cos(Math.toRadians(lat))
+                * Math.cos(Math.toRadians(otherLat))
+                * Math.pow(Math.sin(dLng / 2), 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+}
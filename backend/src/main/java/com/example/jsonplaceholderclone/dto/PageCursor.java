@@ -0,0 +1,33 @@
+package com.example.jsonplaceholderclone.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import lombok.Data;
+
+/**
+ * Opaque keyset cursor handed to clients. It carries the sort it was issued for plus the id and
+ * sort value of the last row of the previous page.
+ */
+@Data
+public class PageCursor {
+
+  private final String sort;
+  private final long lastId;
+  private final String lastValue;
+
+  public String encode() {
+    final String raw = sort + '\n' + lastId + (lastValue == null ? "" : '\n' + lastValue);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static PageCursor decode(final String cursor) {
+    final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    final String[] parts = raw.split("\n", 3);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    return new PageCursor(parts[0], Long.parseLong(parts[1]), parts.length == 3 ? parts[2] : null);
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.jsonplaceholderclone.dto;
+
+import lombok.Data;
+
+/**
+ * Progress of hashing the passwords of a user batch. {@code skipped} counts users that were deleted
+ * or given a password through another request before their batch password was hashed; {@code
+ * failed} counts users whose hash could not be stored, who keep no password.
+ */
+@Data
+public class PasswordJob {
+
+  private final String id;
+  private final int total;
+  private final int hashed;
+  private final int skipped;
+  private final int failed;
+
+  public boolean isDone() {
+    return hashed + skipped + failed == total;
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.jsonplaceholderclone.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import lombok.Getter;
+
+/**
+ * Parsed {@code ?q=} of the user search. Text is split on anything that is not a letter or digit
+ * and lower-cased, the same way the search index tokenizes documents; every term is matched as a
+ * prefix and all terms must match.
+ */
+@Getter
+public final class SearchQuery {
+
+  static final int MIN_TERM_LENGTH = 2;
+  static final int MAX_TERMS = 8;
+
+  private final List<String> terms;
+
+  private SearchQuery(final List<String> terms) {
+    this.terms = terms;
+  }
+
+  public static SearchQuery parse(final String query) {
+    final List<String> terms =
+        tokenize(query).stream()
+            .filter(term -> term.length() >= MIN_TERM_LENGTH)
+            .distinct()
+            .limit(MAX_TERMS)
+            .toList();
+    if (terms.isEmpty()) {
+      throw new IllegalArgumentException("Search query has no terms: " + query);
+    }
+    return new SearchQuery(terms);
+  }
+
+  public static List<String> tokenize(final String text) {
+    final List<String> tokens = new ArrayList<>();
+    if (text == null) {
+      return tokens;
+    }
+    for (final String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.jsonplaceholderclone.dto;
+
+import com.example.jsonplaceholderclone.model.User;
+import java.util.List;
+import lombok.Data;
+
+/** Users inserted by a batch, and the job hashing their passwords, or null if none had one. */
+@Data
+public class UserBatch {
+
+  private final List<User> users;
+  private final PasswordJob passwordJob;
+}
@@ -0,0 +1,13 @@
+package com.example.jsonplaceholderclone.dto;
+
+import com.example.jsonplaceholderclone.model.User;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Data;
+
+/** A user returned by a proximity query, serialized as the user plus {@code distanceKm}. */
+@Data
+public class UserDistance {
+
+  @JsonUnwrapped private final User user;
+  private final double distanceKm;
+}
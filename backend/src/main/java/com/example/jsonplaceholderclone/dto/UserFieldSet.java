@@ -0,0 +1,116 @@
+package com.example.jsonplaceholderclone.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed {@code ?fields=} selection for user reads. Only the leaves listed in {@link #FIELDS} can
+ * be requested; a parent such as {@code address} or {@code address.geo} selects all of its leaves.
+ * The password column is never selectable.
+ */
+public final class UserFieldSet {
+
+  public static final String ADDRESS = "address";
+  public static final String COMPANY = "company";
+
+  private static final List<String> FIELDS =
+      List.of(
+          "id",
+          "name",
+          "username",
+          "email",
+          "phone",
+          "website",
+          "address.street",
+          "address.suite",
+          "address.city",
+          "address.zipcode",
+          "address.geo.lat",
+          "address.geo.lng",
+          "company.name",
+          "company.catchPhrase",
+          "company.bs");
+
+  private final List<String> fields;
+  private final List<String> relations;
+
+  private UserFieldSet(final List<String> fields) {
+    this.fields = fields;
+    this.relations =
+        List.of(ADDRESS, COMPANY).stream()
+            .filter(relation -> fields.stream().anyMatch(f -> f.startsWith(relation + ".")))
+            .toList();
+  }
+
+  public static UserFieldSet parse(final String spec) {
+    final Set<String> selected = new LinkedHashSet<>();
+    selected.add("id");
+    for (final String token : spec.split(",")) {
+      final String requested = token.trim();
+      if (requested.isEmpty()) {
+        continue;
+      }
+      final List<String> matches =
+          FIELDS.stream()
+              .filter(field -> field.equals(requested) || field.startsWith(requested + "."))
+              .toList();
+      if (matches.isEmpty()) {
+        throw new IllegalArgumentException("Unknown field: " + requested);
+      }
+      selected.addAll(matches);
+    }
+    return new UserFieldSet(FIELDS.stream().filter(selected::contains).toList());
+  }
+
+  public UserFieldSet including(final String field) {
+    if (fields.contains(field)) {
+      return this;
+    }
+    final Set<String> selected = new LinkedHashSet<>(fields);
+    selected.add(field);
+    return new UserFieldSet(FIELDS.stream().filter(selected::contains).toList());
+  }
+
+  public boolean includes(final String relation) {
+    return relations.contains(relation);
+  }
+
+  /**
+   * Columns to select, in order: the requested fields followed by the id of every joined relation,
+   * which tells a missing relation apart from one whose selected columns are all null.
+   */
+  public List<String> getColumns() {
+    final List<String> columns = new ArrayList<>(fields);
+    relations.forEach(relation -> columns.add(relation + ".id"));
+    return columns;
+  }
+
+  public Map<String, Object> toDocument(final Object[] row) {
+    final Map<String, Object> document = new LinkedHashMap<>();
+    for (int i = 0; i < fields.size(); i++) {
+      // coordinates are the only numeric columns and render as strings, like Geo does
+      final Object value = row[i] instanceof Double ? row[i].toString() : row[i];
+      put(document, fields.get(i).split("\\."), value);
+    }
+    for (int i = 0; i < relations.size(); i++) {
+      if (row[fields.size() + i] == null) {
+        document.put(relations.get(i), null);
+      }
+    }
+    return document;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void put(
+      final Map<String, Object> document, final String[] path, final Object value) {
+    Map<String, Object> node = document;
+    for (int i = 0; i < path.length - 1; i++) {
+      node = (Map<String, Object>) node.computeIfAbsent(path[i], key -> new LinkedHashMap<>());
+    }
+    node.put(path[path.length - 1], value);
+  }
+}
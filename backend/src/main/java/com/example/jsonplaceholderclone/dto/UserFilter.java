@@ -0,0 +1,27 @@
+package com.example.jsonplaceholderclone.dto;
+
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+/**
+ * Filters accepted by {@code GET /api/users}. Every filter is backed by an index: exact matches on
+ * {@code addresses(city)}, {@code addresses(zipcode)}, {@code companies(name)} and {@code
+ * users(email_domain)}, and a range scan on {@code users(username)} for the prefix.
+ */
+@Data
+public class UserFilter {
+
+  private String city;
+  private String zipcode;
+  private String company;
+  private String emailDomain;
+  private String usernamePrefix;
+
+  public boolean isEmpty() {
+    return !StringUtils.hasText(city)
+        && !StringUtils.hasText(zipcode)
+        && !StringUtils.hasText(company)
+        && !StringUtils.hasText(emailDomain)
+        && !StringUtils.hasText(usernamePrefix);
+  }
+}
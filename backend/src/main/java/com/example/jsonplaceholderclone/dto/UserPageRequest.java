@@ -0,0 +1,13 @@
+package com.example.jsonplaceholderclone.dto;
+
+import lombok.Data;
+
+@Data
+public class UserPageRequest {
+
+  private final UserFilter filter;
+  private final UserSort sort;
+  private final String after;
+  private final int limit;
+  private final boolean withTotal;
+}
@@ -0,0 +1,56 @@
+package com.example.jsonplaceholderclone.dto;
+
+import com.example.jsonplaceholderclone.model.User;
+import java.util.List;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Whitelisted sort order for user listings, written as {@code name} or {@code -name}. */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class UserSort {
+
+  public static final UserSort BY_ID = new UserSort("id", false);
+
+  private static final List<String> SORTABLE = List.of("id", "name", "username", "email");
+  private static final Set<String> UNIQUE = Set.of("id", "username", "email");
+
+  private final String property;
+  private final boolean descending;
+
+  public static UserSort parse(final String spec) {
+    final boolean descending = spec.startsWith("-");
+    final String property = descending ? spec.substring(1) : spec;
+    if (!SORTABLE.contains(property)) {
+      throw new IllegalArgumentException("Unsupported sort: " + spec);
+    }
+    return new UserSort(property, descending);
+  }
+
+  public boolean isById() {
+    return "id".equals(property);
+  }
+
+  /** Unique columns are their own keyset; others need the id as a tie-breaker. */
+  public boolean isUnique() {
+    return UNIQUE.contains(property);
+  }
+
+  public String valueOf(final User user) {
+    return switch (property) {
+      case "name" -> user.getName();
+      case "username" -> user.getUsername();
+      case "email" -> user.getEmail();
+      default -> null;
+    };
+  }
+
+  @Override
+  public String toString() {
+    return descending ? "-" + property : property;
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.jsonplaceholderclone.dto;
+
+import com.example.jsonplaceholderclone.model.User;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Optimistic-lock versions of a user and the address and company it owns. Any write to one of the
+ * three rows changes the tuple, so it is a cheap strong validator for the user's representation.
+ */
+@Data
+public class UserVersion {
+
+  private final Long id;
+  private final Long version;
+  private final Long addressVersion;
+  private final Long companyVersion;
+
+  public static UserVersion of(final User user) {
+    return new UserVersion(
+        user.getId(),
+        user.getVersion(),
+        user.getAddress() == null ? null : user.getAddress().getVersion(),
+        user.getCompany() == null ? null : user.getCompany().getVersion());
+  }
+
+  public String etag() {
+    return '"' + tag() + '"';
+  }
+
+  /**
+   * ETag of a page: a digest over the versions of its rows in order, so updates, inserts, deletes
+   * and reorders all change it, plus whether a next page exists and the total when one is sent.
+   */
+  public static String pageETag(
+      final List<UserVersion> rows, final boolean hasMore, final Long total) {
+    final StringBuilder tags = new StringBuilder();
+    rows.forEach(row -> tags.append(row.tag()).append(','));
+    tags.append(hasMore).append(',').append(total);
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256")
+              .digest(tags.toString().getBytes(StandardCharsets.UTF_8));
+      return '"' + HexFormat.of().formatHex(digest, 0, 16) + '"';
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private String tag() {
+    return id + "." + version + "." + addressVersion + "." + companyVersion;
+  }
+}
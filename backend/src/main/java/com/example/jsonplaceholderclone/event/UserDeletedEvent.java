@@ -0,0 +1,10 @@
+package com.example.jsonplaceholderclone.event;
+
+import lombok.Data;
+
+/** Published when a user has been deleted. */
+@Data
+public class UserDeletedEvent {
+
+  private final Long userId;
+}
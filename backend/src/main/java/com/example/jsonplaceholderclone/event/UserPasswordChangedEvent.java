@@ -0,0 +1,10 @@
+package com.example.jsonplaceholderclone.event;
+
+import lombok.Data;
+
+/** Published when a user's password has been replaced, which invalidates their issued tokens. */
+@Data
+public class UserPasswordChangedEvent {
+
+  private final Long userId;
+}
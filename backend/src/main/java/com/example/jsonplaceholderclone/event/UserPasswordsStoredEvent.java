@@ -0,0 +1,14 @@
+package com.example.jsonplaceholderclone.event;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Published when batch password hashes were written with a set-based UPDATE, which bumps the
+ * versions of the users without loading them.
+ */
+@Data
+public class UserPasswordsStoredEvent {
+
+  private final List<Long> userIds;
+}
@@ -0,0 +1,11 @@
+package com.example.jsonplaceholderclone.event;
+
+import com.example.jsonplaceholderclone.model.User;
+import lombok.Data;
+
+/** Published when a user has been created or updated. */
+@Data
+public class UserSavedEvent {
+
+  private final User user;
+}
@@ -1,17 +1,25 @@
 package com.example.jsonplaceholderclone.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "addresses")
 public class Address {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "addresses_seq")
+  @SequenceGenerator(name = "addresses_seq", sequenceName = "addresses_seq", allocationSize = 1000)
   private Long id;
 
+  @Version @JsonIgnore private Long version;
+
   private String street;
   private String suite;
   private String city;
@@ -1,5 +1,6 @@
 package com.example.jsonplaceholderclone.model;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.Embeddable;
 import lombok.Data;
 
@@ -7,6 +8,10 @@ import lombok.Data;
 @Embeddable
 public class Geo {
 
-  private String lat;
-  private String lng;
+  // numeric columns for the proximity index; still strings in JSON, as in JSONPlaceholder
+  @JsonFormat(shape = JsonFormat.Shape.STRING)
+  private Double lat;
+
+  @JsonFormat(shape = JsonFormat.Shape.STRING)
+  private Double lng;
 }
@@ -1,21 +1,42 @@
 package com.example.jsonplaceholderclone.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import java.util.Locale;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
+@NamedEntityGraph(
+    name = User.WITH_ADDRESS_AND_COMPANY,
+    attributeNodes = {@NamedAttributeNode("address"), @NamedAttributeNode("company")})
 public class User {
 
+  public static final String WITH_ADDRESS_AND_COMPANY = "User.withAddressAndCompany";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+  @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 1000)
   private Long id;
 
+  /** Bumped on every update; together with the address and company versions it is the ETag. */
+  @Version @JsonIgnore private Long version;
+
   private String name;
   private String username;
   private String email;
 
+  /** Lower-cased part of the email after '@', kept in its own indexed column for filtering. */
+  @JsonIgnore
+  @Column(name = "email_domain")
+  private String emailDomain;
+
   @OneToOne(cascade = CascadeType.ALL)
   @JoinColumn(name = "address_id")
   private Address address;
@@ -27,6 +48,14 @@ public class User {
   @JoinColumn(name = "company_id")
   private Company company;
 
+  @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
   @Column(name = "password")
   private String password;
+
+  @PrePersist
+  @PreUpdate
+  void deriveEmailDomain() {
+    final int at = email == null ? -1 : email.lastIndexOf('@');
+    emailDomain = at < 0 ? null : email.substring(at + 1).toLowerCase(Locale.ROOT);
+  }
 }
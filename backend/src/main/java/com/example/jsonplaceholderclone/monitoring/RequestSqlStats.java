@@ -0,0 +1,71 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements run by the current request, collected on the request thread. Identical statement
+ * texts are counted together; with bind placeholders, a statement repeated many times in one
+ * request usually means one query per row of an earlier result (N+1).
+ */
+public final class RequestSqlStats {
+
+  /** Request attribute holding the finished stats, for logging and test assertions. */
+  public static final String REQUEST_ATTRIBUTE = RequestSqlStats.class.getName();
+
+  private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+  private final Map<String, Integer> executions = new LinkedHashMap<>();
+  private int statements;
+  private long nanos;
+
+  static RequestSqlStats begin() {
+    final RequestSqlStats stats = new RequestSqlStats();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  static void end() {
+    CURRENT.remove();
+  }
+
+  /** Stats of the request on this thread, or null outside a request. */
+  static RequestSqlStats current() {
+    return CURRENT.get();
+  }
+
+  void record(final String sql, final long elapsedNanos, final boolean batch) {
+    statements++;
+    nanos += elapsedNanos;
+    // a batch is one round trip for many rows, never an N+1
+    if (!batch) {
+      executions.merge(sql, 1, Integer::sum);
+    }
+  }
+
+  public int statements() {
+    return statements;
+  }
+
+  public Duration time() {
+    return Duration.ofNanos(nanos);
+  }
+
+  /** Statements that ran at least {@code threshold} times, with their counts. */
+  public Map<String, Integer> repeated(final int threshold) {
+    final Map<String, Integer> repeated = new LinkedHashMap<>();
+    executions.forEach(
+        (sql, count) -> {
+          if (count >= threshold) {
+            repeated.put(sql, count);
+          }
+        });
+    return repeated;
+  }
+
+  @Override
+  public String toString() {
+    return statements + " statements in " + time().toMillis() + " ms " + executions.keySet();
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the application's DataSource in a datasource-proxy that reports every statement to a
+ * {@link SqlStatementListener}. The pool underneath is unchanged; its metrics and settings still
+ * reach it through {@code unwrap}.
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+  @Bean
+  public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(
+      @Value("${app.sql.slow-query-threshold-ms:200}") final long slowQueryThresholdMs) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+          return bean;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+            .name(beanName)
+            .listener(new SqlStatementListener(slowQueryThresholdMs))
+            .build();
+      }
+    };
+  }
+}
@@ -0,0 +1,95 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Collects the SQL statements of each HTTP request. Per route ({@code method} and {@code uri}
+ * template) it publishes the statement count as {@code sql.request.statements} and the database
+ * time as {@code sql.request.time}. A statement that runs at least the repeated-statement threshold
+ * times within one request is logged as a likely N+1 and counted in {@code sql.request.repeated}.
+ * The finished {@link RequestSqlStats} stay on the request as {@link
+ * RequestSqlStats#REQUEST_ATTRIBUTE}.
+ */
+@Component
+public class SqlRequestMonitor extends OncePerRequestFilter implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(SqlRequestMonitor.class);
+  private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+  private final int repeatedThreshold;
+  private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+
+  public SqlRequestMonitor(
+      @Value("${app.sql.repeated-statement-threshold:5}") final int repeatedThreshold) {
+    this.repeatedThreshold = repeatedThreshold;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    meters.add(registry);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      final HttpServletRequest request,
+      final HttpServletResponse response,
+      final FilterChain filterChain)
+      throws ServletException, IOException {
+    final RequestSqlStats stats = RequestSqlStats.begin();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      RequestSqlStats.end();
+      request.setAttribute(RequestSqlStats.REQUEST_ATTRIBUTE, stats);
+      report(request, stats);
+    }
+  }
+
+  private void report(final HttpServletRequest request, final RequestSqlStats stats) {
+    final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    final String route = pattern == null ? UNKNOWN_ROUTE : pattern.toString();
+    final Tags tags = Tags.of("method", request.getMethod(), "uri", route);
+    DistributionSummary.builder("sql.request.statements")
+        .tags(tags)
+        .publishPercentileHistogram()
+        .register(meters)
+        .record(stats.statements());
+    Timer.builder("sql.request.time")
+        .tags(tags)
+        .publishPercentileHistogram()
+        .register(meters)
+        .record(stats.time());
+    log.debug("{} {}: {}", request.getMethod(), request.getRequestURI(), stats);
+
+    final Map<String, Integer> repeated = stats.repeated(repeatedThreshold);
+    if (!repeated.isEmpty()) {
+      Counter.builder("sql.request.repeated").tags(tags).register(meters).increment();
+      repeated.forEach(
+          (sql, count) ->
+              log.warn(
+                  "Possible N+1 in {} {}: statement ran {} times: {}",
+                  request.getMethod(),
+                  route,
+                  count,
+                  sql));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import java.util.List;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Times every statement sent through the proxied DataSource. Each one is added to the current
+ * request's {@link RequestSqlStats}, and statements slower than the threshold are logged with
+ * their bind parameters, on any thread.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+  private static final String STARTED = "startedNanos";
+
+  private final long slowThresholdNanos;
+  private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+  public SqlStatementListener(final long slowThresholdMs) {
+    this.slowThresholdNanos = slowThresholdMs * 1_000_000;
+  }
+
+  @Override
+  public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    execInfo.addCustomValue(STARTED, System.nanoTime());
+  }
+
+  @Override
+  public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+    final Long started = execInfo.getCustomValue(STARTED, Long.class);
+    if (started == null) {
+      return;
+    }
+    final long elapsedNanos = System.nanoTime() - started;
+    final RequestSqlStats stats = RequestSqlStats.current();
+    if (stats != null) {
+      for (final QueryInfo query : queryInfoList) {
+        stats.record(query.getQuery(), elapsedNanos / queryInfoList.size(), execInfo.isBatch());
+      }
+    }
+    if (elapsedNanos >= slowThresholdNanos) {
+      log.warn(
+          "Slow SQL ({} ms): {}",
+          elapsedNanos / 1_000_000,
+          logEntryCreator.getLogEntry(execInfo, queryInfoList, true, false, false));
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, from the JFR {@code
+ * jdk.VirtualThreadPinned} event. A virtual thread that blocks while holding a monitor (a {@code
+ * synchronized} block in a JDBC driver or pool, for instance) keeps its carrier, and a handful of
+ * those stall every other request. Each pinning longer than the threshold is timed as {@code
+ * jvm.threads.virtual.pinned}, tagged with the layer that held the monitor, and the first distinct
+ * stacks are logged.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int MAX_LOGGED_STACKS = 50;
+  private static final int LOGGED_FRAMES = 12;
+
+  private final MeterRegistry registry;
+  private final RecordingStream stream;
+  private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+
+  public VirtualThreadPinningMonitor(
+      final MeterRegistry registry,
+      @Value("${app.virtual-threads.pinned-threshold-ms:20}") final long thresholdMs) {
+    this.registry = registry;
+    this.stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Reporting virtual threads pinned for more than {} ms", thresholdMs);
+  }
+
+  @Override
+  public void close() {
+    stream.close();
+  }
+
+  private void onPinned(final RecordedEvent event) {
+    final RecordedStackTrace stackTrace = event.getStackTrace();
+    final List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+    final List<String> classNames =
+        frames.stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .map(frame -> frame.getMethod().getType().getName())
+            .toList();
+    Timer.builder("jvm.threads.virtual.pinned")
+        .description("Time virtual threads spent pinned to their carrier thread")
+        .tag("source", source(classNames))
+        .register(registry)
+        .record(event.getDuration());
+
+    final String stack =
+        frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(
+                frame ->
+                    frame.getMethod().getType().getName()
+                        + "."
+                        + frame.getMethod().getName()
+                        + ":"
+                        + frame.getLineNumber())
+            .collect(Collectors.joining("\n\tat "));
+    if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+      log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), stack);
+    }
+  }
+
+  /**
+   * The layer of the innermost frame we recognise: the connection pool, the JDBC driver, this
+   * application, or {@code other}. Kept to a few values so the tag stays low-cardinality.
+   */
+  static String source(final List<String> classNames) {
+    for (final String className : classNames) {
+      if (className.startsWith("com.zaxxer.hikari.")) {
+        return "hikari";
+      }
+      if (className.startsWith("org.postgresql.") || className.startsWith("org.h2.")) {
+        return "jdbc";
+      }
+      if (className.startsWith("com.example.jsonplaceholderclone.")) {
+        return "app";
+      }
+    }
+    return "other";
+  }
+}
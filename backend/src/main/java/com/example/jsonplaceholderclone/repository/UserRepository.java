@@ -1,14 +1,38 @@
 package com.example.jsonplaceholderclone.repository;
 
+import com.example.jsonplaceholderclone.dto.UserVersion;
 import com.example.jsonplaceholderclone.model.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+  @Override
+  @EntityGraph(User.WITH_ADDRESS_AND_COMPANY)
+  List<User> findAll();
+
+  // findById is deliberately a plain find so it is served from the second-level cache; on a miss
+  // Hibernate still joins the eager address and company into the single load statement.
+
+  @EntityGraph(User.WITH_ADDRESS_AND_COMPANY)
+  List<User> findByIdIn(final Collection<Long> ids);
+
+  @EntityGraph(User.WITH_ADDRESS_AND_COMPANY)
   Optional<User> findByEmail(final String email);
 
+  @EntityGraph(User.WITH_ADDRESS_AND_COMPANY)
   Optional<User> findByUsername(final String username);
 
+  @Query(
+      "select new com.example.jsonplaceholderclone.dto.UserVersion("
+          + "u.id, u.version, a.version, c.version) "
+          + "from User u left join u.address a left join u.company c where u.id = :id")
+  Optional<UserVersion> findVersionById(@Param("id") final Long id);
+
   boolean existsByEmail(final String email);
 
   boolean existsByUsername(final String username);
@@ -0,0 +1,74 @@
+package com.example.jsonplaceholderclone.repository;
+
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PageCursor;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.dto.UserVersion;
+import com.example.jsonplaceholderclone.model.User;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+
+  long approximateCount();
+
+  long countMatching(final UserFilter filter);
+
+  void forEachUser(final Consumer<User> action);
+
+  /**
+   * Persists new users with their address and company in JDBC batches. The users are detached
+   * afterwards, with their generated ids set.
+   */
+  void insertAll(final List<User> users);
+
+  /** Marks users whose batch passwords are still being hashed. */
+  void markPasswordsPending(final Collection<Long> userIds);
+
+  /**
+   * Stores password hashes, by user id, with one batched UPDATE that only touches users still
+   * without a password and bumps their version, then clears the pending marks of all given users.
+   * Returns the ids of the users that got their hash.
+   */
+  List<Long> storePendingPasswords(final Map<Long, String> hashes);
+
+  /** Users still marked pending and still without a password, in id order. */
+  List<Long> findPendingPasswords();
+
+  List<User> findPage(
+      final UserFilter filter, final UserSort sort, final PageCursor after, final int limit);
+
+  List<Map<String, Object>> findFieldsPage(
+      final UserFieldSet fields,
+      final UserFilter filter,
+      final UserSort sort,
+      final PageCursor after,
+      final int limit);
+
+  Optional<Map<String, Object>> findFieldsById(final UserFieldSet fields, final Long id);
+
+  /** Same rows as {@link #findPage}, reading only the versions. */
+  List<UserVersion> findVersionsPage(
+      final UserFilter filter, final UserSort sort, final PageCursor after, final int limit);
+
+  List<UserDistance> findNearest(final GeoRadius area, final int limit);
+
+  /** Ids of the users matching the filter and, when {@code ids} is not null, listed in it. */
+  List<Long> findIdsMatching(final UserFilter filter, final Collection<Long> ids, final int limit);
+
+  /**
+   * Writes the non-null name, phone, website, address and company fields of {@code changes} to
+   * the given users with set-based UPDATEs, bumping the version of every touched row.
+   */
+  BulkResult bulkUpdate(final List<Long> userIds, final User changes);
+
+  /** Deletes the given users and their address and company rows with set-based DELETEs. */
+  BulkResult bulkDelete(final List<Long> userIds);
+}
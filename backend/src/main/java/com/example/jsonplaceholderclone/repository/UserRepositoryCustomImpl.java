@@ -0,0 +1,657 @@
+package com.example.jsonplaceholderclone.repository;
+
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PageCursor;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.dto.UserVersion;
+import com.example.jsonplaceholderclone.model.Address;
+import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.Geo;
+import com.example.jsonplaceholderclone.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private static final String PLANNER_ESTIMATE_SQL =
+      "SELECT reltuples::bigint FROM pg_class WHERE oid = 'users'::regclass";
+  private static final String EXACT_COUNT_SQL = "SELECT COUNT(*) FROM users";
+  private static final String MARK_PASSWORD_PENDING_SQL =
+      "INSERT INTO pending_passwords (user_id) VALUES (?)";
+  private static final String STORE_PENDING_PASSWORD_SQL =
+      "UPDATE users SET password = ?, version = version + 1 WHERE id = ? AND password IS NULL";
+  private static final String CLEAR_PASSWORD_PENDING_SQL =
+      "DELETE FROM pending_passwords WHERE user_id = ?";
+  private static final String PENDING_PASSWORDS_SQL =
+      "SELECT p.user_id FROM pending_passwords p JOIN users u ON u.id = p.user_id"
+          + " WHERE u.password IS NULL ORDER BY p.user_id";
+  private static final String STREAM_ALL_JPQL =
+      "select u from User u left join fetch u.address left join fetch u.company order by u.id";
+  private static final String USERS_BY_IDS_JPQL =
+      "select u from User u left join fetch u.address left join fetch u.company where u.id in :ids";
+  private static final String OWNED_ROW_IDS_JPQL =
+      "select a.id, c.id from User u left join u.address a left join u.company c"
+          + " where u.id in :ids";
+  private static final int STREAM_FETCH_SIZE = 500;
+  // keeps IN lists well below the bind parameter limits of the JDBC drivers
+  private static final int BULK_CHUNK_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManager entityManager;
+  private final int insertBatchSize;
+  private volatile Boolean postgres;
+
+  UserRepositoryCustomImpl(
+      final JdbcTemplate jdbcTemplate,
+      final EntityManager entityManager,
+      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1000}") final int insertBatchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.entityManager = entityManager;
+    this.insertBatchSize = insertBatchSize;
+  }
+
+  @Override
+  public long approximateCount() {
+    if (isPostgres()) {
+      // reltuples is maintained by ANALYZE/autovacuum and is -1 until the table was analyzed
+      final Long estimate = jdbcTemplate.queryForObject(PLANNER_ESTIMATE_SQL, Long.class);
+      if (estimate != null && estimate >= 0) {
+        return estimate;
+      }
+    }
+    final Long count = jdbcTemplate.queryForObject(EXACT_COUNT_SQL, Long.class);
+    return count == null ? 0L : count;
+  }
+
+  @Override
+  public long countMatching(final UserFilter filter) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    query.select(cb.count(paths.root)).where(filterPredicates(cb, paths, filter));
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  @Override
+  public void forEachUser(final Consumer<User> action) {
+    // Must run inside a transaction: the PostgreSQL driver only honours the fetch size with
+    // auto-commit off, otherwise it buffers the whole result set.
+    try (Stream<User> users =
+        entityManager
+            .createQuery(STREAM_ALL_JPQL, User.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+      users.forEach(
+          user -> {
+            action.accept(user);
+            // keep the persistence context from growing with every row read
+            entityManager.detach(user);
+          });
+    }
+  }
+
+  @Override
+  public void insertAll(final List<User> users) {
+    for (int i = 0; i < users.size(); i++) {
+      entityManager.persist(users.get(i));
+      // flushing once per JDBC batch sends each table's rows as one batched insert; clearing
+      // keeps dirty checking from rescanning every user inserted so far
+      if ((i + 1) % insertBatchSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Override
+  public void markPasswordsPending(final Collection<Long> userIds) {
+    jdbcTemplate.batchUpdate(
+        MARK_PASSWORD_PENDING_SQL, userIds, insertBatchSize, (ps, id) -> ps.setLong(1, id));
+  }
+
+  @Override
+  public List<Long> storePendingPasswords(final Map<Long, String> hashes) {
+    final List<Map.Entry<Long, String>> rows = List.copyOf(hashes.entrySet());
+    final int[][] counts =
+        jdbcTemplate.batchUpdate(
+            STORE_PENDING_PASSWORD_SQL,
+            rows,
+            rows.size(),
+            (ps, row) -> {
+              ps.setString(1, row.getValue());
+              ps.setLong(2, row.getKey());
+            });
+    jdbcTemplate.batchUpdate(
+        CLEAR_PASSWORD_PENDING_SQL, rows, rows.size(), (ps, row) -> ps.setLong(1, row.getKey()));
+    final List<Long> stored = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      if (counts[0][i] > 0) {
+        stored.add(rows.get(i).getKey());
+      }
+    }
+    return stored;
+  }
+
+  @Override
+  public List<Long> findPendingPasswords() {
+    return jdbcTemplate.queryForList(PENDING_PASSWORDS_SQL, Long.class);
+  }
+
+  @Override
+  public List<User> findPage(
+      final UserFilter filter, final UserSort sort, final PageCursor after, final int limit) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<User> query = cb.createQuery(User.class);
+    final UserPaths paths = new UserPaths(query.from(User.class), true);
+    // same fetch plan as the User.withAddressAndCompany entity graph: one joined select
+    paths.relation(UserFieldSet.ADDRESS);
+    paths.relation(UserFieldSet.COMPANY);
+    query
+        .select(paths.root)
+        .where(pagePredicates(cb, paths, filter, sort, after))
+        .orderBy(sortOrders(cb, paths, sort));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<Map<String, Object>> findFieldsPage(
+      final UserFieldSet fields,
+      final UserFilter filter,
+      final UserSort sort,
+      final PageCursor after,
+      final int limit) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    query
+        .multiselect(selectFields(paths, fields))
+        .where(pagePredicates(cb, paths, filter, sort, after))
+        .orderBy(sortOrders(cb, paths, sort));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+        .map(tuple -> fields.toDocument(tuple.toArray()))
+        .toList();
+  }
+
+  @Override
+  public Optional<Map<String, Object>> findFieldsById(final UserFieldSet fields, final Long id) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    query.multiselect(selectFields(paths, fields)).where(cb.equal(paths.root.get("id"), id));
+    return entityManager.createQuery(query).getResultList().stream()
+        .findFirst()
+        .map(tuple -> fields.toDocument(tuple.toArray()));
+  }
+
+  @Override
+  public List<UserVersion> findVersionsPage(
+      final UserFilter filter, final UserSort sort, final PageCursor after, final int limit) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<UserVersion> query = cb.createQuery(UserVersion.class);
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    query
+        .select(
+            cb.construct(
+                UserVersion.class,
+                paths.get("id"),
+                paths.get("version"),
+                paths.get("address.version"),
+                paths.get("company.version")))
+        .where(pagePredicates(cb, paths, filter, sort, after))
+        .orderBy(sortOrders(cb, paths, sort));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<UserDistance> findNearest(final GeoRadius area, final int limit) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    final Expression<Double> lat = paths.number("address.geo.lat");
+    final Expression<Double> lng = paths.number("address.geo.lng");
+    final List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.between(lat, area.getMinLat(), area.getMaxLat()));
+    if (!area.getLngRanges().isEmpty()) {
+      predicates.add(
+          cb.or(
+              area.getLngRanges().stream()
+                  .map(range -> cb.between(lng, range[0], range[1]))
+                  .toArray(Predicate[]::new)));
+    }
+    // The haversine term grows with the distance, so the database orders by it and keeps only
+    // `limit` rows instead of returning the whole box; the box predicates still pick the index.
+    final Expression<Double> haversine = haversine(cb, area, lat, lng);
+    predicates.add(cb.le(haversine, area.maxHaversine()));
+    query
+        .multiselect(paths.root.get("id"), lat, lng)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.asc(haversine), cb.asc(paths.root.get("id")));
+
+    final List<Candidate> nearest =
+        entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+            .map(
+                row ->
+                    new Candidate(
+                        row.get(0, Long.class),
+                        area.distanceKm(row.get(1, Double.class), row.get(2, Double.class))))
+            .toList();
+    if (nearest.isEmpty()) {
+      return List.of();
+    }
+    final Map<Long, User> users =
+        entityManager
+            .createQuery(USERS_BY_IDS_JPQL, User.class)
+            .setParameter("ids", nearest.stream().map(Candidate::userId).toList())
+            .getResultList()
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    return nearest.stream()
+        .filter(candidate -> users.containsKey(candidate.userId()))
+        .map(candidate -> new UserDistance(users.get(candidate.userId()), candidate.distanceKm()))
+        .toList();
+  }
+
+  /** {@code sin²(Δlat/2) + cos(lat₀)·cos(lat)·sin²(Δlng/2)}, with the angles in degrees. */
+  private static Expression<Double> haversine(
+      final CriteriaBuilder cb,
+      final GeoRadius area,
+      final Expression<Double> lat,
+      final Expression<Double> lng) {
+    final double halfRadiansPerDegree = Math.PI / 360;
+    final Expression<Double> sinHalfDLat =
+        cb.function(
+            "sin", Double.class, cb.prod(cb.diff(lat, area.getLat()), halfRadiansPerDegree));
+    final Expression<Double> sinHalfDLng =
+        cb.function(
+            "sin", Double.class, cb.prod(cb.diff(lng, area.getLng()), halfRadiansPerDegree));
+    final Expression<Double> cosLat =
+        cb.function("cos", Double.class, cb.prod(lat, 2 * halfRadiansPerDegree));
+    return cb.sum(
+        cb.prod(sinHalfDLat, sinHalfDLat),
+        cb.prod(
+            cb.prod(cosLat, Math.cos(Math.toRadians(area.getLat()))),
+            cb.prod(sinHalfDLng, sinHalfDLng)));
+  }
+
+  @Override
+  public List<Long> findIdsMatching(
+      final UserFilter filter, final Collection<Long> ids, final int limit) {
+    if (ids == null) {
+      return idsMatching(filter, null, limit);
+    }
+    // sorted chunks keep every IN list small and the combined result in id order
+    final List<Long> matching = new ArrayList<>();
+    for (final List<Long> chunk : chunks(ids.stream().distinct().sorted().toList())) {
+      matching.addAll(idsMatching(filter, chunk, limit - matching.size()));
+      if (matching.size() >= limit) {
+        break;
+      }
+    }
+    return matching;
+  }
+
+  private List<Long> idsMatching(
+      final UserFilter filter, final Collection<Long> ids, final int limit) {
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    final UserPaths paths = new UserPaths(query.from(User.class), false);
+    final Path<Long> id = paths.root.get("id");
+    final List<Predicate> predicates =
+        new ArrayList<>(List.of(filterPredicates(cb, paths, filter)));
+    if (ids != null) {
+      predicates.add(id.in(ids));
+    }
+    query.select(id).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public BulkResult bulkUpdate(final List<Long> userIds, final User changes) {
+    final Map<String, Object> userValues = new LinkedHashMap<>();
+    putIfSet(userValues, "name", changes.getName());
+    putIfSet(userValues, "phone", changes.getPhone());
+    putIfSet(userValues, "website", changes.getWebsite());
+    final Map<String, Object> addressValues = new LinkedHashMap<>();
+    final Address address = changes.getAddress();
+    if (address != null) {
+      putIfSet(addressValues, "street", address.getStreet());
+      putIfSet(addressValues, "suite", address.getSuite());
+      putIfSet(addressValues, "city", address.getCity());
+      putIfSet(addressValues, "zipcode", address.getZipcode());
+      final Geo geo = address.getGeo();
+      if (geo != null) {
+        putIfSet(addressValues, "geo.lat", geo.getLat());
+        putIfSet(addressValues, "geo.lng", geo.getLng());
+      }
+    }
+    final Map<String, Object> companyValues = new LinkedHashMap<>();
+    final Company company = changes.getCompany();
+    if (company != null) {
+      putIfSet(companyValues, "name", company.getName());
+      putIfSet(companyValues, "catchPhrase", company.getCatchPhrase());
+      putIfSet(companyValues, "bs", company.getBs());
+    }
+
+    BulkResult result = new BulkResult(0, 0, 0);
+    for (final List<Long> chunk : chunks(userIds)) {
+      final OwnedRows owned =
+          addressValues.isEmpty() && companyValues.isEmpty() ? OwnedRows.NONE : ownedRows(chunk);
+      result =
+          result.plus(
+              new BulkResult(
+                  update(User.class, userValues, chunk),
+                  update(Address.class, addressValues, owned.addressIds()),
+                  update(Company.class, companyValues, owned.companyIds())));
+    }
+    // bulk statements bypass the persistence context, so nothing loaded before may be reused
+    entityManager.clear();
+    return result;
+  }
+
+  @Override
+  public BulkResult bulkDelete(final List<Long> userIds) {
+    BulkResult result = new BulkResult(0, 0, 0);
+    for (final List<Long> chunk : chunks(userIds)) {
+      final OwnedRows owned = ownedRows(chunk);
+      // users go first: they hold the foreign keys to their address and company
+      result =
+          result.plus(
+              new BulkResult(
+                  delete(User.class, chunk),
+                  delete(Address.class, owned.addressIds()),
+                  delete(Company.class, owned.companyIds())));
+    }
+    entityManager.clear();
+    return result;
+  }
+
+  private OwnedRows ownedRows(final List<Long> userIds) {
+    final List<Object[]> rows =
+        entityManager
+            .createQuery(OWNED_ROW_IDS_JPQL, Object[].class)
+            .setParameter("ids", userIds)
+            .getResultList();
+    return new OwnedRows(
+        rows.stream().map(row -> (Long) row[0]).filter(Objects::nonNull).toList(),
+        rows.stream().map(row -> (Long) row[1]).filter(Objects::nonNull).toList());
+  }
+
+  private <T> int update(
+      final Class<T> type, final Map<String, Object> values, final List<Long> ids) {
+    if (values.isEmpty() || ids.isEmpty()) {
+      return 0;
+    }
+    final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    final CriteriaUpdate<T> update = cb.createCriteriaUpdate(type);
+    final Root<T> root = update.from(type);
+    values.forEach((attribute, value) -> update.set(attributePath(root, attribute), value));
+    // versions feed the ETags and must move exactly as they would for a managed update
+    final Path<Long> version = root.get("version");
+    update.set(version, cb.sum(version, 1L)).where(root.get("id").in(ids));
+    return entityManager.createQuery(update).executeUpdate();
+  }
+
+  private <T> int delete(final Class<T> type, final List<Long> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    final CriteriaDelete<T> delete = entityManager.getCriteriaBuilder().createCriteriaDelete(type);
+    final Root<T> root = delete.from(type);
+    delete.where(root.get("id").in(ids));
+    return entityManager.createQuery(delete).executeUpdate();
+  }
+
+  private static Path<Object> attributePath(final Root<?> root, final String dottedPath) {
+    Path<Object> path = null;
+    for (final String part : dottedPath.split("\\.")) {
+      path = path == null ? root.get(part) : path.get(part);
+    }
+    return path;
+  }
+
+  private static void putIfSet(
+      final Map<String, Object> values, final String attribute, final Object value) {
+    if (value != null) {
+      values.put(attribute, value);
+    }
+  }
+
+  private static List<List<Long>> chunks(final List<Long> ids) {
+    final List<List<Long>> chunks = new ArrayList<>();
+    for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+      chunks.add(ids.subList(from, Math.min(ids.size(), from + BULK_CHUNK_SIZE)));
+    }
+    return chunks;
+  }
+
+  private static List<Selection<?>> selectFields(final UserPaths paths, final UserFieldSet fields) {
+    final List<Selection<?>> selections = new ArrayList<>();
+    for (final String column : fields.getColumns()) {
+      selections.add(paths.get(column));
+    }
+    return selections;
+  }
+
+  private static Predicate[] pagePredicates(
+      final CriteriaBuilder cb,
+      final UserPaths paths,
+      final UserFilter filter,
+      final UserSort sort,
+      final PageCursor after) {
+    final List<Predicate> predicates =
+        new ArrayList<>(List.of(filterPredicates(cb, paths, filter)));
+    if (after != null) {
+      predicates.add(keysetPredicate(cb, paths, sort, after));
+    }
+    return predicates.toArray(Predicate[]::new);
+  }
+
+  private static Predicate[] filterPredicates(
+      final CriteriaBuilder cb, final UserPaths paths, final UserFilter filter) {
+    final List<Predicate> predicates = new ArrayList<>();
+    if (StringUtils.hasText(filter.getCity())) {
+      predicates.add(cb.equal(paths.get("address.city"), filter.getCity()));
+    }
+    if (StringUtils.hasText(filter.getZipcode())) {
+      predicates.add(cb.equal(paths.get("address.zipcode"), filter.getZipcode()));
+    }
+    if (StringUtils.hasText(filter.getCompany())) {
+      predicates.add(cb.equal(paths.get("company.name"), filter.getCompany()));
+    }
+    if (StringUtils.hasText(filter.getEmailDomain())) {
+      predicates.add(
+          cb.equal(paths.get("emailDomain"), filter.getEmailDomain().toLowerCase(Locale.ROOT)));
+    }
+    if (StringUtils.hasText(filter.getUsernamePrefix())) {
+      predicates.add(
+          usernamePrefixPredicate(cb, paths.string("username"), filter.getUsernamePrefix()));
+    }
+    return predicates.toArray(Predicate[]::new);
+  }
+
+  /**
+   * A half-open range {@code [prefix, successor)} is what lets the btree on username (byte-order
+   * collation on PostgreSQL) drive the scan; the LIKE keeps the semantics exact.
+   */
+  private static Predicate usernamePrefixPredicate(
+      final CriteriaBuilder cb, final Expression<String> username, final String prefix) {
+    final List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.greaterThanOrEqualTo(username, prefix));
+    final String successor = prefixSuccessor(prefix);
+    if (successor != null) {
+      predicates.add(cb.lessThan(username, successor));
+    }
+    predicates.add(cb.like(username, escapeLike(prefix) + "%", '\\'));
+    return cb.and(predicates.toArray(Predicate[]::new));
+  }
+
+  private static Predicate keysetPredicate(
+      final CriteriaBuilder cb,
+      final UserPaths paths,
+      final UserSort sort,
+      final PageCursor after) {
+    final Path<Long> id = paths.root.get("id");
+    if (sort.isById()) {
+      return sort.isDescending() ? cb.lt(id, after.getLastId()) : cb.gt(id, after.getLastId());
+    }
+    final Expression<String> column = paths.string(sort.getProperty());
+    final String value = after.getLastValue();
+    if (sort.isUnique()) {
+      return sort.isDescending() ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+    }
+    // (column, id) > (value, lastId), plus a plain bound on column so it becomes an index condition
+    final Predicate bound =
+        sort.isDescending()
+            ? cb.lessThanOrEqualTo(column, value)
+            : cb.greaterThanOrEqualTo(column, value);
+    final Predicate beyond =
+        sort.isDescending() ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+    final Predicate tie =
+        cb.and(
+            cb.equal(column, value),
+            sort.isDescending() ? cb.lt(id, after.getLastId()) : cb.gt(id, after.getLastId()));
+    return cb.and(bound, cb.or(beyond, tie));
+  }
+
+  private static List<Order> sortOrders(
+      final CriteriaBuilder cb, final UserPaths paths, final UserSort sort) {
+    final List<Order> orders = new ArrayList<>();
+    final Path<?> column = paths.get(sort.getProperty());
+    orders.add(sort.isDescending() ? cb.desc(column) : cb.asc(column));
+    if (!sort.isUnique()) {
+      final Path<?> id = paths.root.get("id");
+      orders.add(sort.isDescending() ? cb.desc(id) : cb.asc(id));
+    }
+    return orders;
+  }
+
+  private static String prefixSuccessor(final String prefix) {
+    final StringBuilder successor = new StringBuilder(prefix);
+    while (successor.length() > 0) {
+      final int last = successor.length() - 1;
+      final char c = successor.charAt(last);
+      if (c != Character.MAX_VALUE) {
+        successor.setCharAt(last, (char) (c + 1));
+        return successor.toString();
+      }
+      successor.setLength(last);
+    }
+    return null;
+  }
+
+  private static String escapeLike(final String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private boolean isPostgres() {
+    if (postgres == null) {
+      final String product =
+          jdbcTemplate.execute(
+              (ConnectionCallback<String>)
+                  connection -> connection.getMetaData().getDatabaseProductName());
+      postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+    return postgres;
+  }
+
+  /**
+   * Resolves dotted paths such as {@code address.city} against the user root, joining address and
+   * company at most once and only when a path needs them.
+   */
+  private static final class UserPaths {
+
+    private final Root<User> root;
+    private final boolean fetch;
+    private From<?, ?> address;
+    private From<?, ?> company;
+
+    private UserPaths(final Root<User> root, final boolean fetch) {
+      this.root = root;
+      this.fetch = fetch;
+    }
+
+    private Path<?> get(final String dottedPath) {
+      final String[] parts = dottedPath.split("\\.");
+      Path<?> path =
+          switch (parts[0]) {
+            case UserFieldSet.ADDRESS, UserFieldSet.COMPANY -> relation(parts[0]);
+            default -> root.get(parts[0]);
+          };
+      for (int i = 1; i < parts.length; i++) {
+        path = path.get(parts[i]);
+      }
+      return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<String> string(final String dottedPath) {
+      return (Expression<String>) get(dottedPath);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Expression<Double> number(final String dottedPath) {
+      return (Expression<Double>) get(dottedPath);
+    }
+
+    private From<?, ?> relation(final String name) {
+      if (UserFieldSet.ADDRESS.equals(name)) {
+        if (address == null) {
+          address = join(name);
+        }
+        return address;
+      }
+      if (company == null) {
+        company = join(name);
+      }
+      return company;
+    }
+
+    private From<?, ?> join(final String name) {
+      // Hibernate's fetch joins are also joins, so filters can reuse them instead of joining twice
+      return fetch ? (From<?, ?>) root.fetch(name, JoinType.LEFT) : root.join(name, JoinType.LEFT);
+    }
+  }
+
+  private record Candidate(Long userId, double distanceKm) {}
+
+  private record OwnedRows(List<Long> addressIds, List<Long> companyIds) {
+
+    private static final OwnedRows NONE = new OwnedRows(List.of(), List.of());
+  }
+}
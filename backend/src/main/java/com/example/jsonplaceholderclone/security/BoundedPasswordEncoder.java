@@ -0,0 +1,132 @@
+package com.example.jsonplaceholderclone.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs password hashing and verification on a fixed pool of {@code threads}, so a burst of logins
+ * and registrations cannot spend every CPU on ~100 ms hashes while cheap reads wait. Callers block
+ * until their hash is done; once {@code queueCapacity} calls are already waiting, further calls
+ * fail fast with {@link PasswordHashingBusyException}.
+ *
+ * <p>Queue wait and hash time are timers with percentile histograms. They are created up front on
+ * a private composite registry, which records nothing until {@link #bindTo} adds the application's
+ * registry to it.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final long retryAfterSeconds;
+  private final LongAdder rejections = new LongAdder();
+  private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+  private final Timer waitTime = hashingTimer("password.hashing.wait", null);
+  private final Timer encodeTime = hashingTimer("password.hashing.duration", "encode");
+  private final Timer matchesTime = hashingTimer("password.hashing.duration", "matches");
+
+  public BoundedPasswordEncoder(
+      final PasswordEncoder delegate,
+      final int threads,
+      final int queueCapacity,
+      final long retryAfterSeconds) {
+    this.delegate = delegate;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-hash-"));
+  }
+
+  @Override
+  public String encode(final CharSequence rawPassword) {
+    return run(encodeTime, () -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+    return run(matchesTime, () -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(final String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("password.hashing.queue.depth", this, BoundedPasswordEncoder::queueDepth)
+        .register(registry);
+    Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(registry);
+    FunctionCounter.builder("password.hashing.rejected", rejections, LongAdder::sum)
+        .register(registry);
+    meters.add(registry);
+  }
+
+  private Timer hashingTimer(final String name, final String operation) {
+    final Timer.Builder builder = Timer.builder(name).publishPercentileHistogram();
+    if (operation != null) {
+      builder.tag("operation", operation);
+    }
+    return builder.register(meters);
+  }
+
+  private <T> T run(final Timer hashTime, final Supplier<T> task) {
+    final long submitted = System.nanoTime();
+    final Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                final long started = System.nanoTime();
+                waitTime.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                  return task.get();
+                } finally {
+                  hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+              });
+    } catch (final RejectedExecutionException e) {
+      rejections.increment();
+      throw new PasswordHashingBusyException(retryAfterSeconds);
+    }
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+}
@@ -1,14 +1,14 @@
 package com.example.jsonplaceholderclone.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -18,12 +18,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtTokenProvider tokenProvider;
-  private final UserDetailsService userDetailsService;
+  private final TokenWatermarks tokenWatermarks;
+  private final TokenDenylist tokenDenylist;
 
   public JwtAuthenticationFilter(
-      final JwtTokenProvider tokenProvider, final UserDetailsService userDetailsService) {
+      final JwtTokenProvider tokenProvider,
+      final TokenWatermarks tokenWatermarks,
+      final TokenDenylist tokenDenylist) {
     this.tokenProvider = tokenProvider;
-    this.userDetailsService = userDetailsService;
+    this.tokenWatermarks = tokenWatermarks;
+    this.tokenDenylist = tokenDenylist;
   }
 
   @Override
@@ -34,14 +38,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     try {
       final String jwt = getJwtFromRequest(request);
+      final Optional<Claims> claims =
+          StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : Optional.empty();
 
-      if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-        final String username = tokenProvider.getUsernameFromJWT(jwt);
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      // the principal comes from the verified claims alone; the database is only read at login
+      final Optional<UserPrincipal> principal =
+          claims
+              .filter(verified -> !tokenDenylist.isRevoked(verified.getId()))
+              .flatMap(JwtTokenProvider::principalOf)
+              .filter(
+                  user ->
+                      !tokenWatermarks.isInvalidated(
+                          user.getId(), JwtTokenProvider.issuedAt(claims.get())));
 
+      if (principal.isPresent()) {
         final UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+                principal.get(), null, principal.get().getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -2,64 +2,194 @@ package com.example.jsonplaceholderclone.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once. Verified claims are kept in
+ * a bounded LRU keyed by the SHA-256 of the token until the token expires, so a client repeating
+ * the same bearer token skips the HMAC check and JSON parse. Cached claims are shared and must be
+ * treated as read-only. Every token gets a random {@code jti} so it can be revoked on its own.
+ *
+ * <p>Signing and verification are timed as {@code jwt.sign} and {@code jwt.verify}, the latter
+ * tagged {@code result=cached|verified|invalid}.
+ */
 @Component
-public class JwtTokenProvider {
+public class JwtTokenProvider implements MeterBinder {
 
-  @Value("${app.jwt.secret}")
-  private String jwtSecret;
+  public static final String USER_ID_CLAIM = "uid";
+  public static final String ROLES_CLAIM = "roles";
+  // iat only has second precision, too coarse for the per-user watermarks
+  public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
 
-  @Value("${app.jwt.expiration}")
-  private int jwtExpirationInMs;
+  private final Key signingKey;
+  private final JwtParser parser;
+  private final long jwtExpirationInMs;
+  private final Map<String, Claims> verified;
+  private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+  private final Timer signTime =
+      Timer.builder("jwt.sign").publishPercentileHistogram().register(meters);
+  private final Timer cachedVerifyTime = verifyTimer("cached");
+  private final Timer verifyTime = verifyTimer("verified");
+  private final Timer invalidVerifyTime = verifyTimer("invalid");
 
-  private Key getSigningKey() {
-    return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+  public JwtTokenProvider(
+      @Value("${app.jwt.secret}") final String jwtSecret,
+      @Value("${app.jwt.expiration}") final long jwtExpirationInMs,
+      @Value("${app.jwt.verified-cache-size:10000}") final int verifiedCacheSize) {
+    this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    this.jwtExpirationInMs = jwtExpirationInMs;
+    this.verified =
+        new LinkedHashMap<>(256, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(final Map.Entry<String, Claims> eldest) {
+            return size() > verifiedCacheSize;
+          }
+        };
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    meters.add(registry);
   }
 
   public String generateToken(final Authentication authentication) {
+    final long started = System.nanoTime();
     final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
     final Date now = new Date();
     final Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-    return Jwts.builder()
-        .setSubject(userDetails.getUsername())
-        .setIssuedAt(new Date())
-        .setExpiration(expiryDate)
-        .signWith(getSigningKey())
-        .compact();
+    final JwtBuilder builder =
+        Jwts.builder()
+            .setId(UUID.randomUUID().toString())
+            .setSubject(userDetails.getUsername())
+            .claim(
+                ROLES_CLAIM,
+                userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+            .setIssuedAt(now)
+            .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
+            .setExpiration(expiryDate);
+    if (userDetails instanceof UserPrincipal principal) {
+      builder.claim(USER_ID_CLAIM, principal.getId());
+    }
+    final String token = builder.signWith(signingKey).compact();
+    signTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    return token;
   }
 
-  public String getUsernameFromJWT(final String token) {
-    final Claims claims =
-        Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+  /**
+   * The principal described by verified claims, or empty for tokens without a user id or an
+   * {@code iat_ms} issue time, which this application does not issue.
+   */
+  public static Optional<UserPrincipal> principalOf(final Claims claims) {
+    final Long userId = claims.get(USER_ID_CLAIM, Long.class);
+    if (userId == null || claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class) == null) {
+      return Optional.empty();
+    }
+    final List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    final List<GrantedAuthority> authorities =
+        roles == null
+            ? List.of()
+            : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+    return Optional.of(new UserPrincipal(userId, claims.getSubject(), null, authorities));
+  }
 
-    return claims.getSubject();
+  /**
+   * When the token was issued, to the millisecond, from the {@code iat_ms} claim.
+   *
+   * @throws IllegalArgumentException if the claim is missing; {@link #principalOf} rejects such
+   *     tokens
+   */
+  public static Date issuedAt(final Claims claims) {
+    final Long millis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+    if (millis == null) {
+      throw new IllegalArgumentException("Token has no " + ISSUED_AT_MILLIS_CLAIM + " claim");
+    }
+    return new Date(millis);
   }
 
-  public boolean validateToken(final String authToken) {
+  /** Claims of a token with a valid signature that has not expired, otherwise empty. */
+  public Optional<Claims> verify(final String token) {
+    final long started = System.nanoTime();
+    final String key = tokenHash(token);
+    final Claims cached;
+    synchronized (verified) {
+      cached = verified.get(key);
+    }
+    if (cached != null && cached.getExpiration().getTime() > System.currentTimeMillis()) {
+      cachedVerifyTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+      return Optional.of(cached);
+    }
+    final Claims claims;
     try {
-      Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-      return true;
+      claims = parser.parseClaimsJws(token).getBody();
     } catch (final JwtException | IllegalArgumentException e) {
-      return false;
+      if (cached != null) {
+        synchronized (verified) {
+          verified.remove(key);
+        }
+      }
+      invalidVerifyTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+      return Optional.empty();
+    }
+    if (claims.getExpiration() != null) {
+      synchronized (verified) {
+        verified.put(key, claims);
+      }
     }
+    verifyTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    return Optional.of(claims);
+  }
+
+  public boolean validateToken(final String authToken) {
+    return verify(authToken).isPresent();
   }
 
   public Claims getClaims(final String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token)
-        .getBody();
+    return verify(token).orElseThrow(() -> new JwtException("Invalid or expired token"));
   }
 
   public String getUsername(final String token) {
-    return getUsernameFromJWT(token);
+    return getClaims(token).getSubject();
+  }
+
+  private Timer verifyTimer(final String result) {
+    return Timer.builder("jwt.verify")
+        .tag("result", result)
+        .publishPercentileHistogram()
+        .register(meters);
+  }
+
+  private static String tokenHash(final String token) {
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
   }
 }
@@ -0,0 +1,86 @@
+package com.example.jsonplaceholderclone.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password hashing policy. Hashes are stored as {@code {algorithm}hash}, and the hash itself
+ * carries its cost ({@code $2a$12$...} for bcrypt, {@code m=,t=,p=} for argon2). A stored hash of
+ * another algorithm or a lower cost reports {@link PasswordEncoder#upgradeEncoding}, which makes
+ * Spring Security rehash it on the next successful login.
+ */
+public final class PasswordEncoders {
+
+  public static final String BCRYPT = "bcrypt";
+  public static final String ARGON2 = "argon2";
+
+  static final int MIN_BCRYPT_STRENGTH = 10;
+  static final int MAX_BCRYPT_STRENGTH = 31;
+
+  private static final int ARGON2_SALT_LENGTH = 16;
+  private static final int ARGON2_HASH_LENGTH = 32;
+  private static final int ARGON2_PARALLELISM = 1;
+  private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+  private PasswordEncoders() {}
+
+  public static DelegatingPasswordEncoder create(
+      final String algorithm,
+      final int bcryptStrength,
+      final int argon2MemoryKib,
+      final int argon2Iterations) {
+    final PasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+    final Map<String, PasswordEncoder> encoders =
+        Map.of(
+            BCRYPT,
+            bcrypt,
+            ARGON2,
+            new Argon2PasswordEncoder(
+                ARGON2_SALT_LENGTH,
+                ARGON2_HASH_LENGTH,
+                ARGON2_PARALLELISM,
+                argon2MemoryKib,
+                argon2Iterations));
+    if (!encoders.containsKey(algorithm)) {
+      throw new IllegalArgumentException("Unknown password algorithm: " + algorithm);
+    }
+    final DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+    // hashes stored before the {algorithm} prefix are plain bcrypt; they still verify and get
+    // rehashed with the prefix on the next login
+    encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+    return encoder;
+  }
+
+  /**
+   * Highest bcrypt strength whose verify time on this machine stays within {@code target}, never
+   * below {@value #MIN_BCRYPT_STRENGTH}. Each step doubles the work, so the search stops after the
+   * first measurement over the target.
+   */
+  public static int calibrateBcryptStrength(final Duration target) {
+    // one cheap round first, so JIT warm-up does not count against the real measurements
+    measureBcryptVerifyNanos(4);
+    return calibrateBcryptStrength(target, PasswordEncoders::measureBcryptVerifyNanos);
+  }
+
+  static int calibrateBcryptStrength(final Duration target, final IntToLongFunction verifyNanos) {
+    int strength = MIN_BCRYPT_STRENGTH;
+    while (strength < MAX_BCRYPT_STRENGTH
+        && verifyNanos.applyAsLong(strength + 1) <= target.toNanos()) {
+      strength++;
+    }
+    return strength;
+  }
+
+  private static long measureBcryptVerifyNanos(final int strength) {
+    final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+    final String hash = encoder.encode(CALIBRATION_PASSWORD);
+    final long started = System.nanoTime();
+    encoder.matches(CALIBRATION_PASSWORD, hash);
+    return System.nanoTime() - started;
+  }
+}
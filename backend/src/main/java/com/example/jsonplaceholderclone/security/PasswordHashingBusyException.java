@@ -0,0 +1,15 @@
+package com.example.jsonplaceholderclone.security;
+
+import lombok.Getter;
+
+/** Thrown when the password hashing queue is full; answered with 503 and Retry-After. */
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public PasswordHashingBusyException(final long retryAfterSeconds) {
+    super("Password hashing queue is full");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
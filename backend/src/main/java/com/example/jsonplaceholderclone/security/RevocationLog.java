@@ -0,0 +1,154 @@
+package com.example.jsonplaceholderclone.security;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only file of revocations that must survive a restart. Every record is a fixed 25 bytes:
+ * kind, expiry in epoch seconds and two longs. On open, expired records are dropped and the file is
+ * rewritten with the live ones, so it never holds more than one token lifetime of revocations. A
+ * blank path keeps revocations in memory only. The path must be absolute: a relative one would
+ * resolve against whatever directory the process happens to start in, losing earlier logouts.
+ */
+public class RevocationLog implements Closeable {
+
+  /** What a record revokes. The ordinal is the record's first byte, so only append new kinds. */
+  public enum Kind {
+    /** A single token; the values are the two halves of its {@code jti} UUID. */
+    TOKEN,
+    /** Tokens of a user issued before a moment; the values are the user id and epoch milli. */
+    WATERMARK
+  }
+
+  public record Entry(Kind kind, long expiresAtSeconds, long first, long second) {}
+
+  private static final Logger log = LoggerFactory.getLogger(RevocationLog.class);
+  private static final int RECORD_BYTES = 25;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final List<Entry> liveEntries;
+  private final DataOutputStream out;
+
+  public RevocationLog(final String path, final Clock clock) {
+    if (path == null || path.isBlank()) {
+      this.liveEntries = List.of();
+      this.out = null;
+      return;
+    }
+    final Path file = Path.of(path);
+    if (!file.isAbsolute()) {
+      throw new IllegalArgumentException(
+          "app.jwt.revocation-log must be an absolute path, got " + path);
+    }
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      this.liveEntries = List.copyOf(readLive(file, clock.instant().getEpochSecond()));
+      compact(file, liveEntries);
+      this.out =
+          new DataOutputStream(
+              new BufferedOutputStream(
+                  Files.newOutputStream(
+                      file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Could not open revocation log " + file, e);
+    }
+    log.info("Replaying {} revocations from {}", liveEntries.size(), file);
+  }
+
+  /** Records that had not expired when the log was opened, in the order they were written. */
+  public List<Entry> entries() {
+    return liveEntries;
+  }
+
+  /**
+   * Appends a record and flushes it to the operating system. A failed write is logged rather than
+   * thrown: the revocation still holds in memory and is only lost if the process restarts.
+   */
+  public void append(final Entry entry) {
+    if (out == null) {
+      return;
+    }
+    // a lock rather than synchronized: a virtual thread writing the file must not pin its carrier
+    lock.lock();
+    try {
+      write(out, entry);
+      out.flush();
+    } catch (final IOException e) {
+      log.error("Could not persist {} revocation", entry.kind(), e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      out.close();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static List<Entry> readLive(final Path file, final long nowSeconds) throws IOException {
+    final List<Entry> entries = new ArrayList<>();
+    if (!Files.exists(file)) {
+      return entries;
+    }
+    // a record cut short by a crash mid-append is ignored
+    final long records = Files.size(file) / RECORD_BYTES;
+    final Kind[] kinds = Kind.values();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      for (long i = 0; i < records; i++) {
+        final int kind = in.readUnsignedByte();
+        final long expiresAt = in.readLong();
+        final long first = in.readLong();
+        final long second = in.readLong();
+        if (kind < kinds.length && expiresAt > nowSeconds) {
+          entries.add(new Entry(kinds[kind], expiresAt, first, second));
+        }
+      }
+    }
+    return entries;
+  }
+
+  private static void compact(final Path file, final List<Entry> entries) throws IOException {
+    final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (DataOutputStream tmpOut =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+      for (final Entry entry : entries) {
+        write(tmpOut, entry);
+      }
+    }
+    Files.move(
+        tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static void write(final DataOutputStream target, final Entry entry) throws IOException {
+    target.writeByte(entry.kind().ordinal());
+    target.writeLong(entry.expiresAtSeconds());
+    target.writeLong(entry.first());
+    target.writeLong(entry.second());
+  }
+}
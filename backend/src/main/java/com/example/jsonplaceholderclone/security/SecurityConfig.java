@@ -1,5 +1,9 @@
 package com.example.jsonplaceholderclone.security;
 
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,29 +12,45 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+  private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
   private final UserDetailsService userDetailsService;
+  private final int managementPort;
 
   public SecurityConfig(
-      JwtAuthenticationFilter jwtAuthenticationFilter, UserDetailsService userDetailsService) {
+      JwtAuthenticationFilter jwtAuthenticationFilter,
+      UserDetailsService userDetailsService,
+      @Value("${management.server.port:-1}") int managementPort) {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     this.userDetailsService = userDetailsService;
+    this.managementPort = managementPort;
   }
 
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .authorizeHttpRequests(
-            auth -> auth.requestMatchers("/api/auth/**").permitAll().anyRequest().authenticated())
+            auth ->
+                auth.requestMatchers("/api/auth/**", "/actuator/health")
+                    .permitAll()
+                    // scraping needs no token, but only on the management port, bound to localhost
+                    .requestMatchers(
+                        new AndRequestMatcher(
+                            request -> request.getLocalPort() == managementPort,
+                            new AntPathRequestMatcher("/actuator/prometheus")))
+                    .permitAll()
+                    .anyRequest()
+                    .authenticated())
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -39,8 +59,28 @@ public class SecurityConfig {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BoundedPasswordEncoder passwordEncoder(
+      @Value("${app.password.algorithm:bcrypt}") final String algorithm,
+      @Value("${app.password.bcrypt.strength:10}") final String bcryptStrength,
+      @Value("${app.password.target-verify-ms:250}") final long targetVerifyMs,
+      @Value("${app.password.argon2.memory-kib:19456}") final int argon2MemoryKib,
+      @Value("${app.password.argon2.iterations:2}") final int argon2Iterations,
+      @Value("${app.password-hashing.threads:0}") final int threads,
+      @Value("${app.password-hashing.queue-capacity:100}") final int queueCapacity,
+      @Value("${app.password-hashing.retry-after-seconds:1}") final long retryAfterSeconds) {
+    final int strength =
+        "auto".equalsIgnoreCase(bcryptStrength)
+            ? PasswordEncoders.calibrateBcryptStrength(Duration.ofMillis(targetVerifyMs))
+            : Integer.parseInt(bcryptStrength);
+    log.info("Hashing new passwords with {} (bcrypt strength {})", algorithm, strength);
+    // by default hashing may use half of the CPUs; the rest stays free for the other endpoints
+    final int poolSize =
+        threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    return new BoundedPasswordEncoder(
+        PasswordEncoders.create(algorithm, strength, argon2MemoryKib, argon2Iterations),
+        poolSize,
+        queueCapacity,
+        retryAfterSeconds);
   }
 
   @Bean
@@ -0,0 +1,114 @@
+package com.example.jsonplaceholderclone.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids ({@code jti}) of revoked tokens, kept until the token would have expired anyway. A lookup is
+ * a single hash map read. Each entry is also filed in the bucket of a hashed timing wheel for the
+ * tick after its expiry; when the clock passes a bucket its expired entries are dropped and entries
+ * due on a later turn stay. The wheel is advanced by the calls themselves rather than a background
+ * thread, so memory is bounded by the tokens revoked within one token lifetime.
+ */
+public class TokenDenylist {
+
+  private final RevocationLog revocationLog;
+  private final Clock clock;
+  private final long tickSeconds;
+  private final Set<String>[] wheel;
+  private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+  private final AtomicLong sweptTick;
+
+  @SuppressWarnings("unchecked")
+  public TokenDenylist(
+      final RevocationLog revocationLog,
+      final Duration tick,
+      final int wheelSize,
+      final Clock clock) {
+    this.revocationLog = revocationLog;
+    this.clock = clock;
+    this.tickSeconds = Math.max(1, tick.toSeconds());
+    this.wheel = new Set[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = ConcurrentHashMap.newKeySet();
+    }
+    this.sweptTick = new AtomicLong(nowSeconds() / tickSeconds);
+    revocationLog.entries().stream()
+        .filter(entry -> entry.kind() == RevocationLog.Kind.TOKEN)
+        .forEach(
+            entry ->
+                add(new UUID(entry.first(), entry.second()).toString(), entry.expiresAtSeconds()));
+  }
+
+  /** Revokes the token with id {@code jti} until {@code expiresAt}. */
+  public void revoke(final String jti, final Date expiresAt) {
+    if (jti == null || expiresAt == null) {
+      throw new IllegalArgumentException("Only tokens with an id and an expiry can be revoked");
+    }
+    final UUID id = UUID.fromString(jti);
+    // round up so the entry never expires before the token does
+    final long expiresAtSeconds = (expiresAt.getTime() + 999) / 1000;
+    advance();
+    if (add(jti, expiresAtSeconds)) {
+      revocationLog.append(
+          new RevocationLog.Entry(
+              RevocationLog.Kind.TOKEN,
+              expiresAtSeconds,
+              id.getMostSignificantBits(),
+              id.getLeastSignificantBits()));
+    }
+  }
+
+  public boolean isRevoked(final String jti) {
+    advance();
+    return jti != null && expiries.containsKey(jti);
+  }
+
+  public int size() {
+    return expiries.size();
+  }
+
+  private boolean add(final String jti, final long expiresAtSeconds) {
+    if (expiresAtSeconds <= nowSeconds() || expiries.putIfAbsent(jti, expiresAtSeconds) != null) {
+      return false;
+    }
+    wheel[bucket(expiresAtSeconds / tickSeconds + 1)].add(jti);
+    return true;
+  }
+
+  private void advance() {
+    final long current = nowSeconds() / tickSeconds;
+    final long swept = sweptTick.get();
+    // one caller sweeps; the others carry on without waiting for it
+    if (current <= swept || !sweptTick.compareAndSet(swept, current)) {
+      return;
+    }
+    final long now = nowSeconds();
+    // after a full turn every bucket has been visited once, which is all a sweep needs
+    final long last = Math.min(current, swept + wheel.length);
+    for (long tick = swept + 1; tick <= last; tick++) {
+      wheel[bucket(tick)].removeIf(
+          jti -> {
+            final Long expiresAt = expiries.get(jti);
+            if (expiresAt != null && expiresAt > now) {
+              return false;
+            }
+            expiries.remove(jti);
+            return true;
+          });
+    }
+  }
+
+  private int bucket(final long tick) {
+    return (int) Math.floorMod(tick, (long) wheel.length);
+  }
+
+  private long nowSeconds() {
+    return clock.instant().getEpochSecond();
+  }
+}
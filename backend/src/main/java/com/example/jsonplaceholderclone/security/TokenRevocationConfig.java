@@ -0,0 +1,27 @@
+package com.example.jsonplaceholderclone.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TokenRevocationConfig {
+
+  private static final Duration WHEEL_TICK = Duration.ofMinutes(1);
+
+  @Bean
+  public RevocationLog revocationLog(@Value("${app.jwt.revocation-log:}") final String path) {
+    return new RevocationLog(path, Clock.systemUTC());
+  }
+
+  @Bean
+  public TokenDenylist tokenDenylist(
+      final RevocationLog revocationLog,
+      @Value("${app.jwt.expiration}") final long jwtExpirationInMs) {
+    // one turn of the wheel spans a token lifetime, so most entries go on their first pass
+    final int wheelSize = (int) Math.max(1, jwtExpirationInMs / WHEEL_TICK.toMillis());
+    return new TokenDenylist(revocationLog, WHEEL_TICK, wheelSize, Clock.systemUTC());
+  }
+}
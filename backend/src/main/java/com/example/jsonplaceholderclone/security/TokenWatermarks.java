@@ -0,0 +1,67 @@
+package com.example.jsonplaceholderclone.security;
+
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserPasswordChangedEvent;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-user "tokens issued before" watermarks, in epoch milliseconds. A token issued before its
+ * user's watermark (see {@link JwtTokenProvider#issuedAt}) is rejected, so a password change or
+ * deletion ends every session issued before it without a database lookup per request. Watermarks
+ * older than the token lifetime no longer reject anything and are pruned. Watermarks are appended
+ * to the {@link RevocationLog} and replayed from it at startup.
+ */
+@Component
+public class TokenWatermarks {
+
+  private static final int PRUNE_INTERVAL = 1024;
+
+  private final long tokenLifetimeMillis;
+  private final RevocationLog revocationLog;
+  private final ConcurrentHashMap<Long, Long> issuedBefore = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public TokenWatermarks(
+      @Value("${app.jwt.expiration}") final long jwtExpirationInMs,
+      final RevocationLog revocationLog) {
+    this.tokenLifetimeMillis = jwtExpirationInMs;
+    this.revocationLog = revocationLog;
+    for (final RevocationLog.Entry entry : revocationLog.entries()) {
+      if (entry.kind() == RevocationLog.Kind.WATERMARK) {
+        issuedBefore.merge(entry.first(), entry.second(), Math::max);
+      }
+    }
+  }
+
+  public void invalidate(final Long userId) {
+    final long now = System.currentTimeMillis();
+    issuedBefore.merge(userId, now, Math::max);
+    // rounded up so the record outlives every token it rejects
+    final long expiresAtSeconds = (now + tokenLifetimeMillis + 999) / 1000;
+    revocationLog.append(
+        new RevocationLog.Entry(RevocationLog.Kind.WATERMARK, expiresAtSeconds, userId, now));
+    if (invalidations.incrementAndGet() % PRUNE_INTERVAL == 0) {
+      issuedBefore.values().removeIf(watermark -> watermark < now - tokenLifetimeMillis);
+    }
+  }
+
+  public boolean isInvalidated(final Long userId, final Date issuedAt) {
+    final Long watermark = issuedBefore.get(userId);
+    return watermark != null && (issuedAt == null || issuedAt.getTime() < watermark);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPasswordChanged(final UserPasswordChangedEvent event) {
+    invalidate(event.getUserId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(final UserDeletedEvent event) {
+    invalidate(event.getUserId());
+  }
+}
@@ -1,33 +1,58 @@
 package com.example.jsonplaceholderclone.security;
 
+import com.example.jsonplaceholderclone.datasource.PrimaryReads;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
 import com.example.jsonplaceholderclone.model.User;
 import com.example.jsonplaceholderclone.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServerImpl implements UserDetailsService {
+public class UserDetailsServerImpl implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    // read from the primary: a login right after registration must see the new row
     User user =
-        userRepository
-            .findByUsername(username)
+        PrimaryReads.call(() -> userRepository.findByUsername(username))
             .orElseThrow(
                 () -> new UsernameNotFoundException("User not found with username: " + username));
 
-    return new org.springframework.security.core.userdetails.User(
+    return new UserPrincipal(
+        user.getId(),
         user.getUsername(),
         user.getPassword(),
         Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
   }
+
+  /**
+   * Called by Spring Security after a successful login whose stored hash is out of policy, with
+   * the password rehashed under the current algorithm and cost. The password itself is unchanged,
+   * so issued tokens stay valid, but the row's version moves like on any other save.
+   */
+  @Override
+  @Transactional
+  public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+    userRepository
+        .findByUsername(user.getUsername())
+        .ifPresent(
+            existing -> {
+              existing.setPassword(newPassword);
+              eventPublisher.publishEvent(new UserSavedEvent(userRepository.save(existing)));
+            });
+    return ((UserPrincipal) user).withPassword(newPassword);
+  }
 }
@@ -0,0 +1,60 @@
+package com.example.jsonplaceholderclone.security;
+
+import java.util.Collection;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authenticated user. At login it is loaded from the database with the password hash; on every
+ * other request it is rebuilt from the verified token claims and carries no password.
+ */
+@Getter
+public class UserPrincipal implements UserDetails, CredentialsContainer {
+
+  private final Long id;
+  private final String username;
+  private String password;
+  private final Collection<? extends GrantedAuthority> authorities;
+
+  public UserPrincipal(
+      final Long id,
+      final String username,
+      final String password,
+      final Collection<? extends GrantedAuthority> authorities) {
+    this.id = id;
+    this.username = username;
+    this.password = password;
+    this.authorities = authorities;
+  }
+
+  public UserPrincipal withPassword(final String newPassword) {
+    return new UserPrincipal(id, username, newPassword, authorities);
+  }
+
+  @Override
+  public boolean isAccountNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isAccountNonLocked() {
+    return true;
+  }
+
+  @Override
+  public boolean isCredentialsNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public void eraseCredentials() {
+    password = null;
+  }
+}
@@ -0,0 +1,247 @@
+package com.example.jsonplaceholderclone.service;
+
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.event.UserPasswordsStoredEvent;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import com.example.jsonplaceholderclone.security.PasswordHashingBusyException;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hashes the passwords of users created by {@code POST /api/users/batch} after the users have been
+ * inserted, so a 10k import returns in seconds rather than after an hour of hashing. A job is split
+ * into chunks of up to 500 users. {@code app.password-hashing.batch-threads} threads hash chunks
+ * through the bounded hashing pool, waiting out the Retry-After whenever its queue is full, and
+ * store each chunk with one batched UPDATE in its own transaction. A job runs at most one chunk per
+ * thread, and each thread queues its job's next chunk behind those of other jobs, so concurrent
+ * imports take turns.
+ *
+ * <p>Raw passwords are held in memory only until they are hashed. The users still waiting are
+ * recorded in {@code pending_passwords} with the inserted rows: if the process stops first, they
+ * keep no password, and the next start logs them so one can be set with {@code PUT
+ * /api/users/{id}}. This assumes a single instance hashes batch passwords. Finished jobs are
+ * reported for an hour.
+ */
+@Component
+public class BatchPasswordHasher implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchPasswordHasher.class);
+  private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+  private static final int MAX_CHUNK_SIZE = 500;
+  private static final int LOGGED_PENDING_IDS = 100;
+
+  private final UserRepository userRepository;
+  private final PasswordEncoder passwordEncoder;
+  private final ApplicationEventPublisher eventPublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final int threads;
+  private final ExecutorService executor;
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  public BatchPasswordHasher(
+      final UserRepository userRepository,
+      final PasswordEncoder passwordEncoder,
+      final ApplicationEventPublisher eventPublisher,
+      final PlatformTransactionManager transactionManager,
+      final EntityManagerFactory entityManagerFactory,
+      @Value("${app.password-hashing.batch-threads:0}") final int threads) {
+    this.userRepository = userRepository;
+    this.passwordEncoder = passwordEncoder;
+    this.eventPublisher = eventPublisher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.entityManagerFactory = entityManagerFactory;
+    // by default half of the default hashing pool, which leaves the rest to logins
+    this.threads =
+        threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+    this.executor =
+        Executors.newFixedThreadPool(
+            this.threads, new CustomizableThreadFactory("batch-password-"));
+  }
+
+  /**
+   * Queues the raw {@code passwords} of inserted users, by user id, and returns the new job. The
+   * users must already be marked with {@link UserRepository#markPasswordsPending}.
+   */
+  public PasswordJob submit(final Map<Long, String> passwords) {
+    final Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+    jobs.values()
+        .removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    final Job job = new Job(UUID.randomUUID().toString(), passwords, threads);
+    jobs.put(job.id, job);
+    for (int i = 0; i < Math.min(threads, job.chunks.size()); i++) {
+      executor.execute(() -> runNextChunk(job));
+    }
+    return job.snapshot();
+  }
+
+  public Optional<PasswordJob> find(final String id) {
+    return Optional.ofNullable(jobs.get(id)).map(Job::snapshot);
+  }
+
+  /** Logs users whose batch passwords were lost because an earlier process stopped first. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void reportAbandonedPasswords() {
+    final List<Long> pending = userRepository.findPendingPasswords();
+    if (!pending.isEmpty()) {
+      log.warn(
+          "{} users created by a batch have no password: the process hashing them stopped."
+              + " Set their passwords with PUT /api/users/{id}. User ids: {}",
+          pending.size(),
+          pending.subList(0, Math.min(pending.size(), LOGGED_PENDING_IDS)));
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    final int remaining = jobs.values().stream().mapToInt(Job::remaining).sum();
+    if (remaining > 0) {
+      log.warn("Stopped with {} batch passwords not hashed; they stay pending", remaining);
+    }
+  }
+
+  private void runNextChunk(final Job job) {
+    final int index = job.nextChunk.getAndIncrement();
+    if (index >= job.chunks.size()) {
+      return;
+    }
+    final Map<Long, String> hashes = hash(job.chunks.get(index));
+    if (hashes == null) {
+      return;
+    }
+    store(job, hashes);
+    if (job.storedChunks.incrementAndGet() == job.chunks.size()) {
+      job.finishedAt = Instant.now();
+    }
+    try {
+      executor.execute(() -> runNextChunk(job));
+    } catch (final RejectedExecutionException e) {
+      // shutting down: the rest of the job stays pending
+    }
+  }
+
+  /** The hashes of a chunk, or null if the thread was interrupted by shutdown. */
+  private Map<Long, String> hash(final Chunk chunk) {
+    final Map<Long, String> hashes = new LinkedHashMap<>();
+    for (int i = 0; i < chunk.userIds.length; i++) {
+      final Optional<String> hash = encode(chunk.passwords[i]);
+      if (hash.isEmpty()) {
+        return null;
+      }
+      // the raw password is not needed any more
+      chunk.passwords[i] = null;
+      hashes.put(chunk.userIds[i], hash.get());
+    }
+    return hashes;
+  }
+
+  /** The hash, or empty if the thread was interrupted by shutdown while waiting for the pool. */
+  private Optional<String> encode(final String rawPassword) {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        return Optional.of(passwordEncoder.encode(rawPassword));
+      } catch (final PasswordHashingBusyException e) {
+        // interactive requests come first: back off as a client would
+        try {
+          TimeUnit.SECONDS.sleep(e.getRetryAfterSeconds());
+        } catch (final InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  /** Stores the hashes of users that are still there and still have no password. */
+  private void store(final Job job, final Map<Long, String> hashes) {
+    final List<Long> stored;
+    try {
+      stored =
+          transactionTemplate.execute(
+              status -> {
+                final List<Long> ids = userRepository.storePendingPasswords(hashes);
+                eventPublisher.publishEvent(new UserPasswordsStoredEvent(ids));
+                return ids;
+              });
+    } catch (final RuntimeException e) {
+      log.warn("Could not store {} batch passwords of job {}", hashes.size(), job.id, e);
+      job.failed.addAndGet(hashes.size());
+      return;
+    }
+    // the UPDATE bypassed Hibernate, so the second-level cache still holds the old rows
+    stored.forEach(id -> entityManagerFactory.getCache().evict(User.class, id));
+    job.hashed.addAndGet(stored.size());
+    job.skipped.addAndGet(hashes.size() - stored.size());
+  }
+
+  /** One transaction's worth of users; a password is cleared once it has been hashed. */
+  private static final class Chunk {
+
+    private final Long[] userIds;
+    private final String[] passwords;
+
+    private Chunk(final List<Map.Entry<Long, String>> entries) {
+      this.userIds = entries.stream().map(Map.Entry::getKey).toArray(Long[]::new);
+      this.passwords = entries.stream().map(Map.Entry::getValue).toArray(String[]::new);
+    }
+  }
+
+  private static final class Job {
+
+    private final String id;
+    private final int total;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicInteger storedChunks = new AtomicInteger();
+    private final AtomicInteger hashed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Instant finishedAt;
+
+    private Job(final String id, final Map<Long, String> passwords, final int threads) {
+      this.id = id;
+      this.total = passwords.size();
+      // small jobs are still spread over every thread
+      final int chunkSize =
+          Math.max(1, Math.min(MAX_CHUNK_SIZE, (total + threads - 1) / threads));
+      final List<Map.Entry<Long, String>> entries = List.copyOf(passwords.entrySet());
+      for (int from = 0; from < entries.size(); from += chunkSize) {
+        chunks.add(new Chunk(entries.subList(from, Math.min(entries.size(), from + chunkSize))));
+      }
+    }
+
+    private int remaining() {
+      return total - hashed.get() - skipped.get() - failed.get();
+    }
+
+    private PasswordJob snapshot() {
+      return new PasswordJob(id, total, hashed.get(), skipped.get(), failed.get());
+    }
+  }
+}
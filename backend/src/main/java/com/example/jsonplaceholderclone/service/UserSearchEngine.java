@@ -0,0 +1,14 @@
+package com.example.jsonplaceholderclone.service;
+
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import java.util.List;
+
+/**
+ * Full-text index over users and their address and company. The implementation is chosen with
+ * {@code app.search.engine}: {@code postgres} (default) or {@code memory}.
+ */
+public interface UserSearchEngine {
+
+  /** Ids of the users matching every term of the query, best match first. */
+  List<Long> search(final SearchQuery query, final int offset, final int limit);
+}
@@ -1,25 +1,66 @@
 package com.example.jsonplaceholderclone.service;
 
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.BulkUserRequest;
+import com.example.jsonplaceholderclone.dto.CursorPage;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserBatch;
+import com.example.jsonplaceholderclone.dto.UserPageRequest;
+import com.example.jsonplaceholderclone.dto.UserVersion;
 import com.example.jsonplaceholderclone.model.User;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
   List<User> getAllUsers();
 
+  CursorPage<User> getUsersPage(final UserPageRequest request);
+
+  CursorPage<Map<String, Object>> getUserFieldsPage(
+      final UserPageRequest request, final UserFieldSet fields);
+
+  /** ETag of the page {@link #getUsersPage} would return, without loading the users. */
+  String getUsersPageETag(final UserPageRequest request);
+
+  void exportUsers(final Consumer<User> sink);
+
+  CursorPage<User> searchUsers(final SearchQuery query, final int offset, final int limit);
+
+  List<String> suggest(final String prefix, final int limit);
+
+  List<UserDistance> findNearestUsers(final GeoRadius area, final int limit);
+
   Optional<User> getUserById(final Long id);
 
+  Optional<UserVersion> getUserVersion(final Long id);
+
+  Optional<Map<String, Object>> getUserFieldsById(final Long id, final UserFieldSet fields);
+
   Optional<User> getUserByEmail(final String email);
 
   Optional<User> getUserByUsername(final String username);
 
   User createUser(final User user);
 
+  UserBatch createUsers(final List<User> users);
+
+  Optional<PasswordJob> getPasswordJob(final String id);
+
   User updateUser(final Long id, final User user);
 
   void deleteUser(final Long id);
 
+  BulkResult updateUsers(final BulkUserRequest request);
+
+  BulkResult deleteUsers(final BulkUserRequest request);
+
   boolean existsByEmail(final String email);
 
   boolean existsByUsername(final String username);
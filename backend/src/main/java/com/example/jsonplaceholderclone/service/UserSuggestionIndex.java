@@ -0,0 +1,101 @@
+package com.example.jsonplaceholderclone.service;
+
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sorted in-memory index of usernames and emails for type-ahead suggestions. Lookups are a range
+ * scan over a skip list and never touch the database; the index is loaded once the application is
+ * ready and kept current from user change events.
+ */
+@Component
+public class UserSuggestionIndex {
+
+  // separates the lower-cased value from the user id, and sorts below every other character
+  private static final char KEY_SEPARATOR = '\0';
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  // lower-cased value + separator + user id -> value as stored
+  private final ConcurrentSkipListMap<String, String> entries = new ConcurrentSkipListMap<>();
+  private final Map<Long, List<String>> keysByUser = new ConcurrentHashMap<>();
+
+  public UserSuggestionIndex(
+      final UserRepository userRepository, final PlatformTransactionManager transactionManager) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    transactionTemplate.executeWithoutResult(status -> userRepository.forEachUser(this::index));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserSaved(final UserSavedEvent event) {
+    index(event.getUser());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(final UserDeletedEvent event) {
+    remove(event.getUserId());
+  }
+
+  /** Usernames and emails starting with the prefix, ignoring case, in alphabetical order. */
+  public List<String> suggest(final String prefix, final int limit) {
+    final String normalized = normalize(prefix);
+    final Set<String> suggestions = new LinkedHashSet<>();
+    for (final Map.Entry<String, String> entry : entries.tailMap(normalized).entrySet()) {
+      if (!entry.getKey().startsWith(normalized) || suggestions.size() >= limit) {
+        break;
+      }
+      suggestions.add(entry.getValue());
+    }
+    return new ArrayList<>(suggestions);
+  }
+
+  public synchronized void index(final User user) {
+    unindex(user.getId());
+    final List<String> keys = new ArrayList<>(2);
+    for (final String value : new String[] {user.getUsername(), user.getEmail()}) {
+      if (value != null) {
+        final String key = normalize(value) + KEY_SEPARATOR + user.getId();
+        entries.put(key, value);
+        keys.add(key);
+      }
+    }
+    keysByUser.put(user.getId(), keys);
+  }
+
+  public synchronized void remove(final Long userId) {
+    unindex(userId);
+  }
+
+  private void unindex(final Long userId) {
+    final List<String> previous = keysByUser.remove(userId);
+    if (previous != null) {
+      previous.forEach(entries::remove);
+    }
+  }
+
+  private static String normalize(final String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+}
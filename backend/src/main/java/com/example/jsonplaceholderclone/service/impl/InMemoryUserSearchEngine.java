@@ -0,0 +1,168 @@
+package com.example.jsonplaceholderclone.service.impl;
+
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import com.example.jsonplaceholderclone.service.UserSearchEngine;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-process inverted index with the same tokenization, field weights and matching rules as the
+ * PostgreSQL search, for databases without full-text search such as the H2 test profile. Built
+ * from the repository once the application is ready and kept current from user change events.
+ *
+ * <p>Only the set of matching users is the same as on PostgreSQL. The ranking sums each term's
+ * best label weight; unlike {@code ts_rank} it ignores how often and how close together terms
+ * occur, so the two engines can order the same matches differently.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class InMemoryUserSearchEngine implements UserSearchEngine {
+
+  // ts_rank's default weights for the A, B, C and D labels used in schema-postgresql.sql
+  private static final float WEIGHT_A = 1.0f;
+  private static final float WEIGHT_B = 0.4f;
+  private static final float WEIGHT_C = 0.2f;
+  private static final float WEIGHT_D = 0.1f;
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // term -> user id -> best weight of the term in that user's document
+  private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+  // user id -> indexed terms, to unindex a user without scanning every posting list
+  private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+  public InMemoryUserSearchEngine(
+      final UserRepository userRepository, final PlatformTransactionManager transactionManager) {
+    this.userRepository = userRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    transactionTemplate.executeWithoutResult(status -> userRepository.forEachUser(this::index));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserSaved(final UserSavedEvent event) {
+    index(event.getUser());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onUserDeleted(final UserDeletedEvent event) {
+    remove(event.getUserId());
+  }
+
+  public void index(final User user) {
+    final Map<String, Float> document = document(user);
+    lock.writeLock().lock();
+    try {
+      unindex(user.getId());
+      documents.put(user.getId(), document);
+      document.forEach(
+          (term, weight) ->
+              postings.computeIfAbsent(term, key -> new HashMap<>()).put(user.getId(), weight));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(final Long userId) {
+    lock.writeLock().lock();
+    try {
+      unindex(userId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Long> search(final SearchQuery query, final int offset, final int limit) {
+    Map<Long, Float> scores = null;
+    lock.readLock().lock();
+    try {
+      for (final String term : query.getTerms()) {
+        final Map<Long, Float> termScores = new HashMap<>();
+        // terms are letters and digits only, so every term with this prefix sorts below the bound
+        for (final Map<Long, Float> posting :
+            postings.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+          posting.forEach((id, weight) -> termScores.merge(id, weight, Math::max));
+        }
+        if (scores == null) {
+          scores = termScores;
+        } else {
+          scores.keySet().retainAll(termScores.keySet());
+          scores.replaceAll((id, score) -> score + termScores.get(id));
+        }
+        if (scores.isEmpty()) {
+          break;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return scores.entrySet().stream()
+        .sorted(
+            Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+        .skip(offset)
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .toList();
+  }
+
+  private void unindex(final Long userId) {
+    final Map<String, Float> previous = documents.remove(userId);
+    if (previous == null) {
+      return;
+    }
+    for (final String term : previous.keySet()) {
+      final Map<Long, Float> posting = postings.get(term);
+      posting.remove(userId);
+      if (posting.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+  }
+
+  private static Map<String, Float> document(final User user) {
+    final Map<String, Float> document = new HashMap<>();
+    add(document, user.getName(), WEIGHT_A);
+    add(document, user.getUsername(), WEIGHT_A);
+    add(document, user.getEmail(), WEIGHT_B);
+    if (user.getAddress() != null) {
+      add(document, user.getAddress().getCity(), WEIGHT_C);
+      add(document, user.getAddress().getStreet(), WEIGHT_D);
+    }
+    if (user.getCompany() != null) {
+      add(document, user.getCompany().getName(), WEIGHT_B);
+      add(document, user.getCompany().getCatchPhrase(), WEIGHT_C);
+      add(document, user.getCompany().getBs(), WEIGHT_C);
+    }
+    return document;
+  }
+
+  private static void add(
+      final Map<String, Float> document, final String text, final float weight) {
+    for (final String term : SearchQuery.tokenize(text)) {
+      document.merge(term, weight, Math::max);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.jsonplaceholderclone.service.impl;
+
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.service.UserSearchEngine;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Searches the trigger-maintained {@code search_document} column of users, which holds the user's
+ * own fields and those of their address and company (see schema-postgresql.sql). All terms are
+ * matched in one probe of its GIN index, and the matches are ranked with {@code ts_rank}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresUserSearchEngine implements UserSearchEngine {
+
+  private static final String SEARCH_SQL =
+      """
+      SELECT id FROM users
+      WHERE search_document @@ to_tsquery('simple', :query)
+      ORDER BY ts_rank(search_document, to_tsquery('simple', :query)) DESC, id
+      LIMIT :limit OFFSET :offset
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public PostgresUserSearchEngine(final JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  @Override
+  public List<Long> search(final SearchQuery query, final int offset, final int limit) {
+    // terms only contain letters and digits, so they are safe inside tsquery syntax
+    final MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("query", tsquery(query))
+            .addValue("limit", limit)
+            .addValue("offset", offset);
+    return jdbcTemplate.queryForList(SEARCH_SQL, params, Long.class);
+  }
+
+  private static String tsquery(final SearchQuery query) {
+    return query.getTerms().stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+  }
+}
@@ -1,88 +1,391 @@
 package com.example.jsonplaceholderclone.service.impl;
 
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.BulkUserRequest;
+import com.example.jsonplaceholderclone.dto.CursorPage;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PageCursor;
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.dto.UserBatch;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserPageRequest;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.dto.UserVersion;
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserPasswordChangedEvent;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
+import com.example.jsonplaceholderclone.model.Address;
+import com.example.jsonplaceholderclone.model.Company;
 import com.example.jsonplaceholderclone.model.User;
 import com.example.jsonplaceholderclone.repository.UserRepository;
+import com.example.jsonplaceholderclone.service.BatchPasswordHasher;
+import com.example.jsonplaceholderclone.service.UserSearchEngine;
 import com.example.jsonplaceholderclone.service.UserService;
+import com.example.jsonplaceholderclone.service.UserSuggestionIndex;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
+  private static final int MAX_BULK_SIZE = 10_000;
+
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
+  private final UserSearchEngine searchEngine;
+  private final UserSuggestionIndex suggestionIndex;
+  private final ApplicationEventPublisher eventPublisher;
+  private final BatchPasswordHasher batchPasswordHasher;
+  private final TransactionTemplate transactionTemplate;
 
   public UserServiceImpl(
-      final UserRepository userRepository, final PasswordEncoder passwordEncoder) {
+      final UserRepository userRepository,
+      final PasswordEncoder passwordEncoder,
+      final UserSearchEngine searchEngine,
+      final UserSuggestionIndex suggestionIndex,
+      final ApplicationEventPublisher eventPublisher,
+      final BatchPasswordHasher batchPasswordHasher,
+      final PlatformTransactionManager transactionManager) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
+    this.searchEngine = searchEngine;
+    this.suggestionIndex = suggestionIndex;
+    this.eventPublisher = eventPublisher;
+    this.batchPasswordHasher = batchPasswordHasher;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public List<User> getAllUsers() {
     return userRepository.findAll();
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public CursorPage<User> getUsersPage(final UserPageRequest request) {
+    final UserSort sort = request.getSort();
+    // one extra row tells us whether another page exists without a COUNT(*)
+    final List<User> rows =
+        userRepository.findPage(
+            request.getFilter(), sort, decodeCursor(request), request.getLimit() + 1);
+    return toPage(
+        rows, request, user -> new PageCursor(sort.toString(), user.getId(), sort.valueOf(user)));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPage<Map<String, Object>> getUserFieldsPage(
+      final UserPageRequest request, final UserFieldSet fields) {
+    final UserSort sort = request.getSort();
+    // the sort column has to be selected to build the next cursor
+    final UserFieldSet selected = fields.including(sort.getProperty());
+    final List<Map<String, Object>> rows =
+        userRepository.findFieldsPage(
+            selected, request.getFilter(), sort, decodeCursor(request), request.getLimit() + 1);
+    return toPage(
+        rows,
+        request,
+        row ->
+            new PageCursor(
+                sort.toString(),
+                (Long) row.get("id"),
+                sort.isById() ? null : (String) row.get(sort.getProperty())));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public String getUsersPageETag(final UserPageRequest request) {
+    final List<UserVersion> rows =
+        userRepository.findVersionsPage(
+            request.getFilter(),
+            request.getSort(),
+            decodeCursor(request),
+            request.getLimit() + 1);
+    final boolean hasMore = rows.size() > request.getLimit();
+    return UserVersion.pageETag(
+        hasMore ? rows.subList(0, request.getLimit()) : rows, hasMore, total(request));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void exportUsers(final Consumer<User> sink) {
+    userRepository.forEachUser(sink);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public CursorPage<User> searchUsers(final SearchQuery query, final int offset, final int limit) {
+    final List<Long> ids = searchEngine.search(query, offset, limit + 1);
+    final boolean hasMore = ids.size() > limit;
+    final List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+    final Map<Long, User> users =
+        userRepository.findByIdIn(pageIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    // keep the engine's ranking; users deleted after the index was read simply drop out
+    final List<User> items = pageIds.stream().map(users::get).filter(Objects::nonNull).toList();
+    return new CursorPage<>(items, hasMore ? String.valueOf(offset + limit) : null, null);
+  }
+
+  @Override
+  // served from memory; opening a transaction would only cost a pooled connection
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<String> suggest(final String prefix, final int limit) {
+    return suggestionIndex.suggest(prefix, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<UserDistance> findNearestUsers(final GeoRadius area, final int limit) {
+    return userRepository.findNearest(area, limit);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public Optional<User> getUserById(final Long id) {
     return userRepository.findById(id);
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public Optional<UserVersion> getUserVersion(final Long id) {
+    return userRepository.findVersionById(id);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Map<String, Object>> getUserFieldsById(
+      final Long id, final UserFieldSet fields) {
+    return userRepository.findFieldsById(fields, id);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public Optional<User> getUserByEmail(final String email) {
     return userRepository.findByEmail(email);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public Optional<User> getUserByUsername(final String username) {
     return userRepository.findByUsername(username);
   }
 
   @Override
+  // Hashes before the transaction opens, like updateUser.
+  @Transactional(propagation = Propagation.SUPPORTS)
   public User createUser(final User user) {
     if (user.getPassword() != null) {
       user.setPassword(passwordEncoder.encode(user.getPassword()));
     }
-    return userRepository.save(user);
+    return transactionTemplate.execute(
+        status -> {
+          final User saved = userRepository.save(user);
+          eventPublisher.publishEvent(new UserSavedEvent(saved));
+          return saved;
+        });
+  }
+
+  @Override
+  // Users are inserted without their passwords, which are handed to BatchPasswordHasher once the
+  // rows are committed: hashing 10k passwords would hold the request, and its connection, for an
+  // hour. The users waiting for a hash are marked in the same transaction.
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public UserBatch createUsers(final List<User> users) {
+    final List<String> passwords = users.stream().map(User::getPassword).toList();
+    users.forEach(user -> user.setPassword(null));
+    final Map<Long, String> pending = new LinkedHashMap<>();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          userRepository.insertAll(users);
+          for (int i = 0; i < users.size(); i++) {
+            if (passwords.get(i) != null) {
+              pending.put(users.get(i).getId(), passwords.get(i));
+            }
+          }
+          if (!pending.isEmpty()) {
+            userRepository.markPasswordsPending(pending.keySet());
+          }
+          users.forEach(user -> eventPublisher.publishEvent(new UserSavedEvent(user)));
+        });
+    return new UserBatch(users, pending.isEmpty() ? null : batchPasswordHasher.submit(pending));
   }
 
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public Optional<PasswordJob> getPasswordJob(final String id) {
+    return batchPasswordHasher.find(id);
+  }
+
+  @Override
+  // Hashes before the transaction opens, so a request queued for the hashing pool holds no
+  // connection.
+  @Transactional(propagation = Propagation.SUPPORTS)
   public User updateUser(final Long id, final User user) {
-    return userRepository
-        .findById(id)
-        .map(
-            existingUser -> {
-              existingUser.setName(user.getName());
-              existingUser.setUsername(user.getUsername());
-              existingUser.setEmail(user.getEmail());
-              existingUser.setAddress(user.getAddress());
-              existingUser.setPhone(user.getPhone());
-              existingUser.setWebsite(user.getWebsite());
-              existingUser.setCompany(user.getCompany());
-              if (user.getPassword() != null) {
-                existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
-              }
-              return userRepository.save(existingUser);
-            })
-        .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    final String passwordHash =
+        user.getPassword() != null ? passwordEncoder.encode(user.getPassword()) : null;
+    return transactionTemplate.execute(
+        status ->
+            userRepository
+                .findById(id)
+                .map(
+                    existingUser -> {
+                      existingUser.setName(user.getName());
+                      existingUser.setUsername(user.getUsername());
+                      existingUser.setEmail(user.getEmail());
+                      existingUser.setAddress(
+                          mergeAddress(existingUser.getAddress(), user.getAddress()));
+                      existingUser.setPhone(user.getPhone());
+                      existingUser.setWebsite(user.getWebsite());
+                      existingUser.setCompany(
+                          mergeCompany(existingUser.getCompany(), user.getCompany()));
+                      if (passwordHash != null) {
+                        existingUser.setPassword(passwordHash);
+                      }
+                      final User saved = userRepository.save(existingUser);
+                      eventPublisher.publishEvent(new UserSavedEvent(saved));
+                      if (passwordHash != null) {
+                        eventPublisher.publishEvent(new UserPasswordChangedEvent(saved.getId()));
+                      }
+                      return saved;
+                    })
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id)));
   }
 
   @Override
   public void deleteUser(final Long id) {
     userRepository.deleteById(id);
+    eventPublisher.publishEvent(new UserDeletedEvent(id));
+  }
+
+  @Override
+  public BulkResult updateUsers(final BulkUserRequest request) {
+    final User changes = request.getSet();
+    if (changes == null
+        || changes.getUsername() != null
+        || changes.getEmail() != null
+        || changes.getPassword() != null) {
+      throw new IllegalArgumentException(
+          "Bulk updates can only set name, phone, website, address and company fields");
+    }
+    final List<Long> userIds = selectForBulk(request);
+    final BulkResult result = userRepository.bulkUpdate(userIds, changes);
+    // the set-based statements bypass the entity lifecycle; reload so listeners see new values
+    userRepository
+        .findByIdIn(userIds)
+        .forEach(user -> eventPublisher.publishEvent(new UserSavedEvent(user)));
+    return result;
   }
 
   @Override
+  public BulkResult deleteUsers(final BulkUserRequest request) {
+    final List<Long> userIds = selectForBulk(request);
+    final BulkResult result = userRepository.bulkDelete(userIds);
+    userIds.forEach(id -> eventPublisher.publishEvent(new UserDeletedEvent(id)));
+    return result;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public boolean existsByEmail(final String email) {
     return userRepository.existsByEmail(email);
   }
 
   @Override
+  @Transactional(readOnly = true)
   public boolean existsByUsername(final String username) {
     return userRepository.existsByUsername(username);
   }
+
+  private List<Long> selectForBulk(final BulkUserRequest request) {
+    final UserFilter filter = request.filterOrEmpty();
+    if (!request.hasIds() && filter.isEmpty()) {
+      throw new IllegalArgumentException("Bulk operations need ids or a filter");
+    }
+    if (request.hasIds() && request.getIds().size() > MAX_BULK_SIZE) {
+      throw new IllegalArgumentException(
+          "Bulk operations are limited to " + MAX_BULK_SIZE + " users");
+    }
+    final List<Long> userIds =
+        userRepository.findIdsMatching(
+            filter, request.hasIds() ? request.getIds() : null, MAX_BULK_SIZE + 1);
+    if (userIds.size() > MAX_BULK_SIZE) {
+      throw new IllegalArgumentException(
+          "Bulk operations are limited to " + MAX_BULK_SIZE + " users");
+    }
+    return userIds;
+  }
+
+  private static PageCursor decodeCursor(final UserPageRequest request) {
+    if (request.getAfter() == null) {
+      return null;
+    }
+    final PageCursor cursor = PageCursor.decode(request.getAfter());
+    if (!cursor.getSort().equals(request.getSort().toString())) {
+      throw new IllegalArgumentException("Cursor was issued for a different sort");
+    }
+    return cursor;
+  }
+
+  private <T> CursorPage<T> toPage(
+      final List<T> rows, final UserPageRequest request, final Function<T, PageCursor> cursorOf) {
+    final int limit = request.getLimit();
+    final boolean hasMore = rows.size() > limit;
+    final List<T> items = hasMore ? rows.subList(0, limit) : rows;
+    final String nextCursor = hasMore ? cursorOf.apply(items.get(limit - 1)).encode() : null;
+    return new CursorPage<>(items, nextCursor, total(request));
+  }
+
+  private Long total(final UserPageRequest request) {
+    if (!request.isWithTotal()) {
+      return null;
+    }
+    // planner statistics only describe the whole table; filtered totals are counted on indexes
+    return request.getFilter().isEmpty()
+        ? userRepository.approximateCount()
+        : userRepository.countMatching(request.getFilter());
+  }
+
+  /**
+   * Updates the owned address in place rather than swapping in the request's instance, so the row
+   * keeps its id and its version moves forward for the ETag.
+   */
+  private static Address mergeAddress(final Address existing, final Address update) {
+    if (existing == null || update == null) {
+      return update;
+    }
+    existing.setStreet(update.getStreet());
+    existing.setSuite(update.getSuite());
+    existing.setCity(update.getCity());
+    existing.setZipcode(update.getZipcode());
+    existing.setGeo(update.getGeo());
+    return existing;
+  }
+
+  private static Company mergeCompany(final Company existing, final Company update) {
+    if (existing == null || update == null) {
+      return update;
+    }
+    existing.setName(update.getName());
+    existing.setCatchPhrase(update.getCatchPhrase());
+    existing.setBs(update.getBs());
+    return existing;
+  }
 }
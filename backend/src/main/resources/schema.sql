@@ -1,42 +1,77 @@
 -- Drop existing tables if they exist
+DROP TABLE IF EXISTS pending_passwords CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS addresses CASCADE;
 DROP TABLE IF EXISTS companies CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS addresses_seq;
+DROP SEQUENCE IF EXISTS companies_seq;
+
+-- Id sequences. Hibernate reserves a block of 1000 ids per call (pooled-lo: the sequence value is
+-- the first id of the block), so they must step by the entities' allocationSize. The explicit
+-- ids in data.sql stay below the first block.
+CREATE SEQUENCE companies_seq START WITH 1001 INCREMENT BY 1000;
+CREATE SEQUENCE addresses_seq START WITH 1001 INCREMENT BY 1000;
+CREATE SEQUENCE users_seq START WITH 1001 INCREMENT BY 1000;
 
 -- Create companies table
 CREATE TABLE companies (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     catch_phrase VARCHAR(255),
-    bs VARCHAR(255)
+    bs VARCHAR(255),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Create addresses table
 CREATE TABLE addresses (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     street VARCHAR(255) NOT NULL,
     suite VARCHAR(255),
     city VARCHAR(255) NOT NULL,
     zipcode VARCHAR(255),
-    lat VARCHAR(255),
-    lng VARCHAR(255)
+    lat DOUBLE PRECISION,
+    lng DOUBLE PRECISION,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Create users table
 CREATE TABLE users (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     username VARCHAR(255) NOT NULL UNIQUE,
     email VARCHAR(255) NOT NULL UNIQUE,
+    email_domain VARCHAR(255),
     phone VARCHAR(255),
     website VARCHAR(255),
     password VARCHAR(255),
     address_id BIGINT REFERENCES addresses(id),
-    company_id BIGINT REFERENCES companies(id)
+    company_id BIGINT REFERENCES companies(id),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Users created by POST /api/users/batch whose passwords are still being hashed. The raw
+-- passwords exist only in the memory of the process hashing them, so a row left here after a
+-- restart marks a user that has no password and needs one set.
+CREATE TABLE pending_passwords (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
 -- Create indexes
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_users_address_id ON users(address_id);
-CREATE INDEX idx_users_company_id ON users(company_id); 
\ No newline at end of file
+CREATE INDEX idx_users_company_id ON users(company_id);
+
+-- Indexes backing the filters and sort orders of GET /api/users; the trailing id keeps keyset
+-- pagination inside the index
+CREATE INDEX idx_users_email_domain_id ON users(email_domain, id);
+CREATE INDEX idx_users_name_id ON users(name, id);
+CREATE INDEX idx_addresses_city_id ON addresses(city, id);
+CREATE INDEX idx_addresses_zipcode_id ON addresses(zipcode, id);
+CREATE INDEX idx_companies_name_id ON companies(name, id);
+
+-- Proximity queries scan the latitude band of a bounding box and filter longitude inside the
+-- index; id is included so the candidate list is read from the index alone
+CREATE INDEX idx_addresses_lat_lng ON addresses(lat, lng, id);
@@ -0,0 +1,115 @@
+package com.example.jsonplaceholderclone.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class UserJsonCacheTest {
+
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  @Test
+  void put_ShouldEvictLeastRecentlyUsedEntriesBeyondByteBudget() {
+    // Arrange
+    final UserJsonCache cache = new UserJsonCache(3 * (128 + 100), TTL);
+    cache.put(1L, entry(1L), cache.stamp());
+    cache.put(2L, entry(2L), cache.stamp());
+    cache.put(3L, entry(3L), cache.stamp());
+    cache.get(1L);
+
+    // Act
+    cache.put(4L, entry(4L), cache.stamp());
+
+    // Assert
+    assertNotNull(cache.get(1L));
+    assertNull(cache.get(2L));
+    assertEquals(3, cache.size());
+    assertEquals(3 * (128 + 100), cache.bytes());
+  }
+
+  @Test
+  void put_AfterEvictionSinceStamp_ShouldBeIgnored() {
+    // Arrange
+    final UserJsonCache cache = new UserJsonCache(1 << 20, TTL);
+    final long stamp = cache.stamp();
+
+    // Act
+    cache.onUserDeleted(new UserDeletedEvent(1L));
+    cache.put(1L, entry(1L), stamp);
+
+    // Assert
+    assertNull(cache.get(1L));
+    assertEquals(0, cache.bytes());
+  }
+
+  @Test
+  void get_AfterTtl_ShouldDropEntry() {
+    // Arrange
+    final AtomicLong now = new AtomicLong();
+    final UserJsonCache cache = new UserJsonCache(1 << 20, TTL, now::get);
+    cache.put(1L, entry(1L), cache.stamp());
+
+    // Act
+    now.set(TTL.toNanos() - 1);
+    final UserJsonCache.Entry beforeTtl = cache.get(1L);
+    now.set(TTL.toNanos());
+    final UserJsonCache.Entry afterTtl = cache.get(1L);
+
+    // Assert
+    assertNotNull(beforeTtl);
+    assertNull(afterTtl);
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.bytes());
+  }
+
+  @Test
+  void gzip_ShouldCompressOnceAndCountBytes() throws IOException {
+    // Arrange
+    final UserJsonCache cache = new UserJsonCache(1 << 20, TTL);
+    final UserJsonCache.Entry entry = entry(1L);
+    cache.put(1L, entry, cache.stamp());
+
+    // Act
+    final byte[] gzip = cache.gzip(1L, entry);
+
+    // Assert
+    assertSame(gzip, cache.gzip(1L, entry));
+    assertEquals(128 + 100 + gzip.length, cache.bytes());
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertArrayEquals(entry.getJson(), in.readAllBytes());
+    }
+    assertEquals("\"1.0.0.0-gzip\"", entry.getGzipETag());
+  }
+
+  @Test
+  void bindTo_ShouldExposeHitsMissesAndBytes() {
+    // Arrange
+    final UserJsonCache cache = new UserJsonCache(1 << 20, TTL);
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+    cache.put(1L, entry(1L), cache.stamp());
+
+    // Act
+    cache.get(1L);
+    cache.get(2L);
+
+    // Assert
+    assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    assertEquals(228.0, registry.get("cache.bytes").gauge().value());
+  }
+
+  private static UserJsonCache.Entry entry(final long id) {
+    final byte[] json = new byte[100];
+    Arrays.fill(json, (byte) 'a');
+    return new UserJsonCache.Entry("\"" + id + ".0.0.0\"", json);
+  }
+}
@@ -1,6 +1,11 @@
 package com.example.jsonplaceholderclone.config;
 
 import com.example.jsonplaceholderclone.security.JwtTokenProvider;
+import com.example.jsonplaceholderclone.security.RevocationLog;
+import com.example.jsonplaceholderclone.security.TokenDenylist;
+import com.example.jsonplaceholderclone.security.TokenWatermarks;
+import java.time.Clock;
+import java.time.Duration;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -15,7 +20,23 @@ public class TestSecurityConfig {
   @Bean
   @Primary
   public JwtTokenProvider jwtTokenProvider() {
-    return new JwtTokenProvider();
+    return new JwtTokenProvider(
+        "testSecretKey123456789012345678901234567890", 3600000L, 100);
+  }
+
+  @Bean
+  public RevocationLog revocationLog() {
+    return new RevocationLog("", Clock.systemUTC());
+  }
+
+  @Bean
+  public TokenWatermarks tokenWatermarks(final RevocationLog revocationLog) {
+    return new TokenWatermarks(3600000L, revocationLog);
+  }
+
+  @Bean
+  public TokenDenylist tokenDenylist(final RevocationLog revocationLog) {
+    return new TokenDenylist(revocationLog, Duration.ofMinutes(1), 60, Clock.systemUTC());
   }
 
   @Bean
@@ -6,10 +6,17 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.example.jsonplaceholderclone.config.TestSecurityConfig;
+import com.example.jsonplaceholderclone.datasource.PrimaryReads;
 import com.example.jsonplaceholderclone.model.User;
 import com.example.jsonplaceholderclone.security.JwtTokenProvider;
+import com.example.jsonplaceholderclone.security.PasswordHashingBusyException;
+import com.example.jsonplaceholderclone.security.TokenDenylist;
 import com.example.jsonplaceholderclone.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.util.Date;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -33,6 +40,8 @@ class AuthControllerTest {
 
   @MockBean private JwtTokenProvider tokenProvider;
 
+  @MockBean private TokenDenylist tokenDenylist;
+
   @MockBean private UserService userService;
 
   @Test
@@ -61,6 +70,57 @@ class AuthControllerTest {
     verify(tokenProvider, times(1)).generateToken(any(Authentication.class));
   }
 
+  @Test
+  void login_WhenPasswordHashingIsSaturated_ShouldReturnServiceUnavailable() throws Exception {
+    // Arrange
+    final LoginRequest loginRequest = new LoginRequest();
+    loginRequest.setUsername("testuser");
+    loginRequest.setPassword("password");
+    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+        .thenThrow(new PasswordHashingBusyException(1));
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"));
+
+    verify(tokenProvider, never()).generateToken(any(Authentication.class));
+  }
+
+  @Test
+  void logout_WithValidToken_ShouldRevokeItUntilExpiry() throws Exception {
+    // Arrange
+    // claims keep exp at second precision
+    final Date expiresAt = new Date((System.currentTimeMillis() / 1000 + 3600) * 1000);
+    final Claims claims =
+        Jwts.claims().setId("3f1c9a4e-8d2b-4c5a-9e7f-1a2b3c4d5e6f").setExpiration(expiresAt);
+    when(tokenProvider.verify("test.jwt.token")).thenReturn(Optional.of(claims));
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/api/auth/logout").header("Authorization", "Bearer test.jwt.token"))
+        .andExpect(status().isNoContent());
+
+    verify(tokenDenylist, times(1)).revoke("3f1c9a4e-8d2b-4c5a-9e7f-1a2b3c4d5e6f", expiresAt);
+  }
+
+  @Test
+  void logout_WithInvalidToken_ShouldReturnNoContent() throws Exception {
+    // Arrange
+    when(tokenProvider.verify(anyString())).thenReturn(Optional.empty());
+
+    // Act & Assert
+    mockMvc
+        .perform(post("/api/auth/logout").header("Authorization", "Bearer invalid.token"))
+        .andExpect(status().isNoContent());
+
+    verify(tokenDenylist, never()).revoke(any(), any());
+  }
+
   @Test
   void register_WithNewUser_ShouldReturnCreatedUser() throws Exception {
     // Arrange
@@ -84,6 +144,23 @@ class AuthControllerTest {
     verify(userService, times(1)).createUser(any(User.class));
   }
 
+  @Test
+  void register_ShouldCheckUniquenessOnThePrimary() throws Exception {
+    // Arrange
+    final User user = createSampleUser();
+    when(userService.existsByUsername(anyString())).thenAnswer(call -> !PrimaryReads.isActive());
+    when(userService.existsByEmail(anyString())).thenAnswer(call -> !PrimaryReads.isActive());
+    when(userService.createUser(any(User.class))).thenReturn(user);
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+        .andExpect(status().isOk());
+  }
+
   @Test
   void register_WithExistingUsername_ShouldReturnBadRequest() throws Exception {
     // Arrange
@@ -0,0 +1,47 @@
+package com.example.jsonplaceholderclone.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.jsonplaceholderclone.monitoring.SqlStatements;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "app.password.bcrypt.strength=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class UserControllerQueryCountTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void getUsers_ShouldStayWithinQueryBudget() throws Exception {
+    mockMvc
+        .perform(get("/api/users?limit=10"))
+        .andExpect(status().isOk())
+        .andExpect(SqlStatements.atMost(2))
+        .andExpect(SqlStatements.noneRepeated(2));
+  }
+
+  @Test
+  void getUserById_ShouldStayWithinQueryBudget() throws Exception {
+    mockMvc
+        .perform(get("/api/users/1"))
+        .andExpect(status().isOk())
+        .andExpect(SqlStatements.atMost(1));
+  }
+
+  @Test
+  void atMost_WhenRequestRunsMoreStatements_ShouldFail() {
+    assertThrows(
+        AssertionError.class,
+        () -> mockMvc.perform(get("/api/users?limit=10")).andExpect(SqlStatements.atMost(0)));
+  }
+}
@@ -1,26 +1,46 @@
 package com.example.jsonplaceholderclone.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.example.jsonplaceholderclone.cache.UserJsonCache;
 import com.example.jsonplaceholderclone.config.TestSecurityConfig;
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.BulkUserRequest;
+import com.example.jsonplaceholderclone.dto.CursorPage;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.dto.UserBatch;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserPageRequest;
+import com.example.jsonplaceholderclone.dto.UserVersion;
 import com.example.jsonplaceholderclone.model.Address;
 import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.Geo;
 import com.example.jsonplaceholderclone.model.User;
 import com.example.jsonplaceholderclone.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -34,20 +54,382 @@ class UserControllerTest {
 
   @MockBean private UserService userService;
 
+  @MockBean private UserJsonCache userJsonCache;
+
   @Test
   @WithMockUser
   void getAllUsers_ShouldReturnUsers() throws Exception {
     final List<User> users = Arrays.asList(createSampleUser(1L), createSampleUser(2L));
-    when(userService.getAllUsers()).thenReturn(users);
+    when(userService.getUsersPage(any(UserPageRequest.class)))
+        .thenReturn(new CursorPage<>(users, null, null));
 
     mockMvc
         .perform(get("/api/users"))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$[0].id").value(1))
-        .andExpect(jsonPath("$[1].id").value(2));
+        .andExpect(jsonPath("$[1].id").value(2))
+        .andExpect(header().string("X-Next-Cursor", ""))
+        .andExpect(header().string("Link", "<http://localhost/api/users>; rel=\"first\""));
+
+    verify(userService, times(1))
+        .getUsersPage(
+            argThat(
+                request ->
+                    request.getFilter().isEmpty()
+                        && request.getSort().isById()
+                        && request.getAfter() == null
+                        && request.getLimit() == 50
+                        && !request.isWithTotal()));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WhenMorePagesExist_ShouldExposeCursorAndTotal() throws Exception {
+    final List<User> users = Arrays.asList(createSampleUser(1L), createSampleUser(2L));
+    when(userService.getUsersPage(
+            argThat(
+                request ->
+                    "abc".equals(request.getAfter())
+                        && request.getLimit() == 2
+                        && request.isWithTotal())))
+        .thenReturn(new CursorPage<>(users, "next", 10L));
+
+    mockMvc
+        .perform(
+            get("/api/users").param("limit", "2").param("after", "abc").param("count", "true"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "next"))
+        .andExpect(header().string("X-Total-Count", "10"))
+        .andExpect(
+            header()
+                .string(
+                    "Link",
+                    "<http://localhost/api/users>; rel=\"first\","
+                        + " <http://localhost/api/users?after=next>; rel=\"next\""));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+    when(userService.getUsersPage(argThat(request -> "broken".equals(request.getAfter()))))
+        .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+    mockMvc.perform(get("/api/users").param("after", "broken")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_ShouldClampLimit() throws Exception {
+    when(userService.getUsersPage(any(UserPageRequest.class)))
+        .thenReturn(new CursorPage<>(List.of(), null, null));
+
+    mockMvc.perform(get("/api/users").param("limit", "100000")).andExpect(status().isOk());
+
+    verify(userService, times(1)).getUsersPage(argThat(request -> request.getLimit() == 500));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithFiltersAndSort_ShouldPassThemToService() throws Exception {
+    when(userService.getUsersPage(any(UserPageRequest.class)))
+        .thenReturn(new CursorPage<>(List.of(), null, null));
+
+    mockMvc
+        .perform(
+            get("/api/users")
+                .param("city", "Gwenborough")
+                .param("emailDomain", "april.biz")
+                .param("sort", "-name"))
+        .andExpect(status().isOk());
+
+    verify(userService, times(1))
+        .getUsersPage(
+            argThat(
+                request ->
+                    "Gwenborough".equals(request.getFilter().getCity())
+                        && "april.biz".equals(request.getFilter().getEmailDomain())
+                        && "-name".equals(request.getSort().toString())));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithUnsortableField_ShouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/api/users").param("sort", "phone")).andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithFields_ShouldReturnProjectedDocuments() throws Exception {
+    final Map<String, Object> document = new LinkedHashMap<>();
+    document.put("id", 1L);
+    document.put("username", "testuser");
+    when(userService.getUserFieldsPage(any(UserPageRequest.class), any(UserFieldSet.class)))
+        .thenReturn(new CursorPage<>(List.of(document), null, null));
+
+    mockMvc
+        .perform(get("/api/users").param("fields", "username"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].username").value("testuser"))
+        .andExpect(jsonPath("$[0].name").doesNotExist());
+
+    verify(userService, never()).getUsersPage(any());
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/users").param("fields", "id,password"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @WithMockUser
+  void searchUsers_ShouldReturnRankedUsersAndNextOffset() throws Exception {
+    final List<User> users = List.of(createSampleUser(3L), createSampleUser(1L));
+    when(userService.searchUsers(
+            argThat(query -> query.getTerms().equals(List.of("leanne"))), eq(0), eq(2)))
+        .thenReturn(new CursorPage<>(users, "2", null));
+
+    mockMvc
+        .perform(get("/api/users/search").param("q", "Leanne").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(3))
+        .andExpect(jsonPath("$[1].id").value(1))
+        .andExpect(header().string("Link", containsString("offset=2")));
+  }
+
+  @Test
+  @WithMockUser
+  void searchUsers_AtDeepestOffset_ShouldNotLinkPastIt() throws Exception {
+    final List<User> users = List.of(createSampleUser(3L), createSampleUser(1L));
+    when(userService.searchUsers(any(), eq(999), eq(2)))
+        .thenReturn(new CursorPage<>(users, "1001", null));
+
+    mockMvc
+        .perform(
+            get("/api/users/search")
+                .param("q", "Leanne")
+                .param("limit", "2")
+                .param("offset", "999"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(3))
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andExpect(header().doesNotExist("Link"));
+  }
+
+  @Test
+  @WithMockUser
+  void searchUsers_PastDeepestOffset_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/users/search").param("q", "Leanne").param("offset", "1001"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @WithMockUser
+  void searchUsers_WithoutUsableTerms_ShouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/api/users/search").param("q", " - ")).andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @WithMockUser
+  void suggest_ShouldReturnMatchingNames() throws Exception {
+    when(userService.suggest("bre", 10)).thenReturn(List.of("Bret", "bret@example.com"));
+
+    mockMvc
+        .perform(get("/api/users/suggest").param("prefix", "bre"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0]").value("Bret"))
+        .andExpect(jsonPath("$[1]").value("bret@example.com"));
+  }
+
+  @Test
+  @WithMockUser
+  void findNearestUsers_ShouldReturnUsersWithDistance() throws Exception {
+    final User user = createSampleUser(1L);
+    final Geo geo = new Geo();
+    geo.setLat(-37.3159);
+    geo.setLng(81.1496);
+    user.getAddress().setGeo(geo);
+    when(userService.findNearestUsers(any(GeoRadius.class), eq(10)))
+        .thenReturn(List.of(new UserDistance(user, 2.5)));
+
+    mockMvc
+        .perform(
+            get("/api/users/near")
+                .param("lat", "-37.3")
+                .param("lng", "81.1")
+                .param("radiusKm", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].address.geo.lat").value("-37.3159"))
+        .andExpect(jsonPath("$[0].distanceKm").value(2.5));
+  }
+
+  @Test
+  @WithMockUser
+  void findNearestUsers_WithInvalidCoordinates_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/users/near").param("lat", "91").param("lng", "0").param("radiusKm", "5"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(userService);
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_WithFields_ShouldReturnProjectedDocument() throws Exception {
+    when(userService.getUserVersion(1L)).thenReturn(Optional.of(new UserVersion(1L, 0L, 0L, 0L)));
+    when(userService.getUserFieldsById(eq(1L), any(UserFieldSet.class)))
+        .thenReturn(Optional.of(Map.of("id", 1L, "name", "Test User")));
+
+    mockMvc
+        .perform(get("/api/users/1").param("fields", "name"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Test User"))
+        .andExpect(jsonPath("$.address").doesNotExist());
+
+    verify(userService, never()).getUserById(anyLong());
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_ShouldReturnETagFromVersions() throws Exception {
+    final User user = createSampleUser(1L);
+    user.setVersion(2L);
+    when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+
+    mockMvc
+        .perform(get("/api/users/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1.2.null.null\""));
+  }
 
-    verify(userService, times(1)).getAllUsers();
+  @Test
+  @WithMockUser
+  void getUserById_WhenCached_ShouldWriteCachedBytesWithoutLoadingUser() throws Exception {
+    when(userJsonCache.get(1L)).thenReturn(cachedEntry());
+
+    mockMvc
+        .perform(get("/api/users/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1.3.1.0\""))
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.id").value(1));
+
+    verify(userService, never()).getUserById(anyLong());
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_WithMatchingETag_ShouldReturnNotModifiedWithoutLoadingUser() throws Exception {
+    when(userJsonCache.get(1L)).thenReturn(cachedEntry());
+
+    mockMvc
+        .perform(get("/api/users/1").header("If-None-Match", "\"1.3.1.0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    verify(userService, never()).getUserById(anyLong());
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_WhenClientAcceptsGzip_ShouldWriteGzipVariant() throws Exception {
+    final UserJsonCache.Entry entry = cachedEntry();
+    when(userJsonCache.get(1L)).thenReturn(entry);
+    when(userJsonCache.gzip(1L, entry)).thenReturn(new byte[] {31, -117});
+
+    mockMvc
+        .perform(get("/api/users/1").header("Accept-Encoding", "br, gzip;q=0.8"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "gzip"))
+        .andExpect(header().string("ETag", "\"1.3.1.0-gzip\""))
+        .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")));
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_WithStaleETag_ShouldLoadAndCacheUser() throws Exception {
+    final User user = createSampleUser(1L);
+    user.setVersion(4L);
+    when(userJsonCache.stamp()).thenReturn(7L);
+    when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+
+    mockMvc
+        .perform(get("/api/users/1").header("If-None-Match", "\"1.3.1.0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1.4.null.null\""))
+        .andExpect(jsonPath("$.id").value(1));
+
+    verify(userJsonCache, times(1))
+        .put(eq(1L), argThat(entry -> entry.getEtag().equals("\"1.4.null.null\"")), eq(7L));
+  }
+
+  @Test
+  @WithMockUser
+  void getAllUsers_WithMatchingETag_ShouldReturnNotModifiedWithoutLoadingUsers() throws Exception {
+    when(userService.getUsersPageETag(any(UserPageRequest.class))).thenReturn("\"abc\"");
+
+    mockMvc
+        .perform(get("/api/users").header("If-None-Match", "\"abc\""))
+        .andExpect(status().isNotModified());
+
+    verify(userService, never()).getUsersPage(any());
+  }
+
+  @Test
+  @WithMockUser
+  void getUserById_ShouldNotExposePassword() throws Exception {
+    final User user = createSampleUser(1L);
+    user.setPassword("hashedPassword");
+    when(userService.getUserById(1L)).thenReturn(Optional.of(user));
+
+    mockMvc
+        .perform(get("/api/users/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.password").doesNotExist());
+  }
+
+  @Test
+  @WithMockUser
+  @SuppressWarnings("unchecked")
+  void exportUsers_ShouldWriteOneJsonDocumentPerLine() throws Exception {
+    doAnswer(
+            invocation -> {
+              final Consumer<User> sink = invocation.getArgument(0);
+              sink.accept(createSampleUser(1L));
+              sink.accept(createSampleUser(2L));
+              return null;
+            })
+        .when(userService)
+        .exportUsers(any(Consumer.class));
+
+    final String body =
+        mockMvc
+            .perform(get("/api/users/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    final String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(1L, objectMapper.readValue(lines[0], User.class).getId());
+    assertEquals(2L, objectMapper.readValue(lines[1], User.class).getId());
   }
 
   @Test
@@ -93,6 +475,74 @@ class UserControllerTest {
     verify(userService, times(1)).createUser(any(User.class));
   }
 
+  @Test
+  @WithMockUser
+  void createUsers_ShouldReturnCreatedUsers() throws Exception {
+    final List<User> users = List.of(createSampleUser(1L), createSampleUser(2L));
+    when(userService.createUsers(anyList())).thenReturn(new UserBatch(users, null));
+
+    mockMvc
+        .perform(
+            post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(users)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[1].id").value(2));
+
+    verify(userService).createUsers(anyList());
+  }
+
+  @Test
+  @WithMockUser
+  void createUsers_WhenEmpty_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(post("/api/users/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+        .andExpect(status().isBadRequest());
+
+    verify(userService, never()).createUsers(anyList());
+  }
+
+  @Test
+  @WithMockUser
+  void createUsers_WithPasswords_ShouldAcceptAndPointToPasswordJob() throws Exception {
+    final List<User> users = List.of(createSampleUser(1L), createSampleUser(2L));
+    when(userService.createUsers(anyList()))
+        .thenReturn(new UserBatch(users, new PasswordJob("job-1", 2, 0, 0, 0)));
+
+    mockMvc
+        .perform(
+            post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "[{\"username\":\"a\",\"password\":\"secret\"},"
+                        + "{\"username\":\"b\",\"password\":\"secret\"}]"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "http://localhost/api/users/batch/jobs/job-1"))
+        .andExpect(jsonPath("$.length()").value(2));
+  }
+
+  @Test
+  @WithMockUser
+  void getPasswordJob_ShouldReturnProgress() throws Exception {
+    when(userService.getPasswordJob("job-1"))
+        .thenReturn(Optional.of(new PasswordJob("job-1", 3, 2, 1, 0)));
+
+    mockMvc
+        .perform(get("/api/users/batch/jobs/job-1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hashed").value(2))
+        .andExpect(jsonPath("$.done").value(true));
+  }
+
+  @Test
+  @WithMockUser
+  void getPasswordJob_WhenUnknown_ShouldReturnNotFound() throws Exception {
+    when(userService.getPasswordJob("missing")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/users/batch/jobs/missing")).andExpect(status().isNotFound());
+  }
+
   @Test
   @WithMockUser
   void updateUser_WhenUserExists_ShouldReturnUpdatedUser() throws Exception {
@@ -128,6 +578,21 @@ class UserControllerTest {
     verify(userService, times(1)).updateUser(eq(1L), any(User.class));
   }
 
+  @Test
+  @WithMockUser
+  void updateUser_WhenConcurrentUpdateWins_ShouldReturnConflict() throws Exception {
+    final User user = createSampleUser(1L);
+    when(userService.updateUser(anyLong(), any(User.class)))
+        .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+    mockMvc
+        .perform(
+            put("/api/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+        .andExpect(status().isConflict());
+  }
+
   @Test
   @WithMockUser
   void deleteUser_ShouldReturnOk() throws Exception {
@@ -138,6 +603,38 @@ class UserControllerTest {
     verify(userService, times(1)).deleteUser(1L);
   }
 
+  @Test
+  @WithMockUser
+  void updateUsers_ShouldReturnAffectedRowCounts() throws Exception {
+    when(userService.updateUsers(any(BulkUserRequest.class))).thenReturn(new BulkResult(2, 0, 2));
+
+    mockMvc
+        .perform(
+            patch("/api/users/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2],\"set\":{\"company\":{\"name\":\"NewCo\"}}}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.users").value(2))
+        .andExpect(jsonPath("$.addresses").value(0))
+        .andExpect(jsonPath("$.companies").value(2));
+  }
+
+  @Test
+  @WithMockUser
+  void deleteUsers_WhenSelectionIsInvalid_ShouldReturnBadRequest() throws Exception {
+    when(userService.deleteUsers(any(BulkUserRequest.class)))
+        .thenThrow(new IllegalArgumentException("Bulk operations need ids or a filter"));
+
+    mockMvc
+        .perform(delete("/api/users/bulk").contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static UserJsonCache.Entry cachedEntry() {
+    return new UserJsonCache.Entry(
+        "\"1.3.1.0\"", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+  }
+
   private User createSampleUser(final Long id) {
     final User user = new User();
     user.setId(id);
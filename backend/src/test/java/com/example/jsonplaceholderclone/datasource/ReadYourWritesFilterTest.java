@@ -0,0 +1,64 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+
+class ReadYourWritesFilterTest {
+
+  private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+  @Test
+  void doFilter_AfterOwnWrite_ShouldReadThePrimary() throws Exception {
+    // Arrange
+    filter.doFilter(request("PUT", "alice"), new MockHttpServletResponse(), (req, res) -> {});
+
+    // Act
+    final boolean primary = primaryReadsDuring(request("GET", "alice"));
+
+    // Assert
+    assertTrue(primary);
+    assertFalse(PrimaryReads.isActive());
+  }
+
+  @Test
+  void doFilter_AfterAnotherUsersWrite_ShouldReadReplicas() throws Exception {
+    // Arrange
+    filter.doFilter(request("POST", "alice"), new MockHttpServletResponse(), (req, res) -> {});
+
+    // Act & Assert
+    assertFalse(primaryReadsDuring(request("GET", "bob")));
+    assertFalse(primaryReadsDuring(request("GET", null)));
+  }
+
+  @Test
+  void doFilter_AfterFailedWrite_ShouldReadReplicas() throws Exception {
+    // Arrange
+    final MockHttpServletResponse failed = new MockHttpServletResponse();
+    failed.setStatus(404);
+    filter.doFilter(request("PUT", "alice"), failed, (req, res) -> {});
+
+    // Act & Assert
+    assertFalse(primaryReadsDuring(request("GET", "alice")));
+  }
+
+  private boolean primaryReadsDuring(final MockHttpServletRequest request) throws Exception {
+    final AtomicBoolean primary = new AtomicBoolean();
+    filter.doFilter(
+        request, new MockHttpServletResponse(), (req, res) -> primary.set(PrimaryReads.isActive()));
+    return primary.get();
+  }
+
+  private static MockHttpServletRequest request(final String method, final String user) {
+    final MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/users/1");
+    if (user != null) {
+      request.setUserPrincipal(new TestingAuthenticationToken(user, null));
+    }
+    return request;
+  }
+}
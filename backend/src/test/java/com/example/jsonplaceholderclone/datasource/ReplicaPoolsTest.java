@@ -0,0 +1,104 @@
+package com.example.jsonplaceholderclone.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class ReplicaPoolsTest {
+
+  // H2 reports the database URL without its settings, so the expected URLs carry none.
+  private static final String PRIMARY = "jdbc:h2:mem:primary";
+  private static final String REPLICA_1 = "jdbc:h2:mem:replica1";
+  private static final String REPLICA_2 = "jdbc:h2:mem:replica2";
+  private static final String UNREACHABLE = "jdbc:h2:tcp://localhost:1/unreachable";
+  private static final String KEEP_OPEN = ";DB_CLOSE_DELAY=-1";
+
+  private final DataSource primary = new DriverManagerDataSource(PRIMARY + KEEP_OPEN, "sa", "");
+  private ReplicaPools replicaPools;
+
+  @AfterEach
+  void tearDown() {
+    replicaPools.close();
+  }
+
+  @Test
+  void readOnlyDataSource_ShouldAlternateBetweenReplicas() {
+    // Arrange
+    replicaPools = replicaPools(REPLICA_1, REPLICA_2);
+    final DataSource readOnly = replicaPools.readOnlyDataSource(primary);
+
+    // Act
+    final List<String> urls = List.of(url(readOnly), url(readOnly), url(readOnly));
+
+    // Assert
+    assertNotEquals(urls.get(0), urls.get(1));
+    assertEquals(urls.get(0), urls.get(2));
+    assertTrue(List.of(REPLICA_1, REPLICA_2).containsAll(urls));
+  }
+
+  @Test
+  void readOnlyDataSource_WithUnreachableReplica_ShouldUseTheHealthyOne() {
+    // Arrange
+    replicaPools = replicaPools(UNREACHABLE, REPLICA_1);
+    final DataSource readOnly = replicaPools.readOnlyDataSource(primary);
+
+    // Act
+    replicaPools.checkHealth();
+
+    // Assert
+    assertEquals(1, replicaPools.healthyCount());
+    assertEquals(REPLICA_1, url(readOnly));
+    assertEquals(REPLICA_1, url(readOnly));
+  }
+
+  @Test
+  void readOnlyDataSource_WithoutHealthyReplica_ShouldFallBackToPrimary() {
+    // Arrange
+    replicaPools = replicaPools(UNREACHABLE);
+    final DataSource readOnly = replicaPools.readOnlyDataSource(primary);
+
+    // Act
+    final String url = url(readOnly);
+
+    // Assert
+    assertEquals(PRIMARY, url);
+    assertEquals(0, replicaPools.healthyCount());
+  }
+
+  @Test
+  void readOnlyDataSource_WithPrimaryReads_ShouldUsePrimary() {
+    // Arrange
+    replicaPools = replicaPools(REPLICA_1, REPLICA_2);
+    final DataSource readOnly = replicaPools.readOnlyDataSource(primary);
+
+    // Act
+    final String url = PrimaryReads.call(() -> url(readOnly));
+
+    // Assert
+    assertEquals(PRIMARY, url);
+    assertFalse(PrimaryReads.isActive());
+  }
+
+  private static ReplicaPools replicaPools(final String... urls) {
+    final List<String> configured =
+        Arrays.stream(urls).map(url -> url.startsWith("jdbc:h2:mem:") ? url + KEEP_OPEN : url).toList();
+    return new ReplicaPools(
+        configured, "sa", "", 2, Duration.ofMillis(250), Duration.ofHours(1));
+  }
+
+  private static String url(final DataSource dataSource) {
+    try (Connection connection = dataSource.getConnection()) {
+      return connection.getMetaData().getURL();
+    } catch (final SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
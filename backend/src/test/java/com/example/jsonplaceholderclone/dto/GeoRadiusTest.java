@@ -0,0 +1,69 @@
+package com.example.jsonplaceholderclone.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class GeoRadiusTest {
+
+  @Test
+  void of_ShouldBoundLatitudeAndLongitudeAroundCentre() {
+    // Act
+    final GeoRadius area = GeoRadius.of(45.0, 10.0, 100);
+
+    // Assert
+    assertEquals(44.1, area.getMinLat(), 0.01);
+    assertEquals(45.9, area.getMaxLat(), 0.01);
+    assertEquals(1, area.getLngRanges().size());
+    assertEquals(8.73, area.getLngRanges().get(0)[0], 0.01);
+    assertEquals(11.27, area.getLngRanges().get(0)[1], 0.01);
+  }
+
+  @Test
+  void of_ShouldSplitLongitudeAtAntimeridian() {
+    // Act
+    final GeoRadius area = GeoRadius.of(0.0, -179.9, 50);
+
+    // Assert
+    assertEquals(2, area.getLngRanges().size());
+    assertEquals(180, area.getLngRanges().get(0)[1]);
+    assertEquals(-180, area.getLngRanges().get(1)[0]);
+  }
+
+  @Test
+  void of_ShouldScanAllLongitudesWhenCirclesCoverPole() {
+    // Act
+    final GeoRadius area = GeoRadius.of(89.9, 0.0, 100);
+
+    // Assert
+    assertTrue(area.getLngRanges().isEmpty());
+    assertEquals(90, area.getMaxLat());
+  }
+
+  @Test
+  void of_WithInvalidArguments_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> GeoRadius.of(91, 0, 10));
+    assertThrows(IllegalArgumentException.class, () -> GeoRadius.of(0, 181, 10));
+    assertThrows(IllegalArgumentException.class, () -> GeoRadius.of(0, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> GeoRadius.of(0, 0, Double.NaN));
+  }
+
+  @Test
+  void distanceKm_ShouldUseGreatCircle() {
+    // Act & Assert (Paris to London)
+    assertEquals(343.5, GeoRadius.of(48.8566, 2.3522, 10).distanceKm(51.5074, -0.1278), 1.0);
+  }
+
+  @Test
+  void maxHaversine_ShouldMatchDistanceAtRadius() {
+    // Arrange
+    final GeoRadius area = GeoRadius.of(0.0, 0.0, 100);
+    final double a = area.maxHaversine();
+
+    // Act
+    final double distance = 2 * GeoRadius.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+
+    // Assert
+    assertEquals(100, distance, 1e-9);
+  }
+}
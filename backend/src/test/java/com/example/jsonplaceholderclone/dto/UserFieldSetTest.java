@@ -0,0 +1,59 @@
+package com.example.jsonplaceholderclone.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class UserFieldSetTest {
+
+  @Test
+  void parse_ShouldAlwaysSelectIdAndKeepCanonicalOrder() {
+    // Act
+    final UserFieldSet fields = UserFieldSet.parse("username, name");
+
+    // Assert
+    assertEquals(List.of("id", "name", "username"), fields.getColumns());
+    assertFalse(fields.includes(UserFieldSet.ADDRESS));
+    assertFalse(fields.includes(UserFieldSet.COMPANY));
+  }
+
+  @Test
+  void parse_WithParentField_ShouldExpandToLeavesAndJoinMarker() {
+    // Act
+    final UserFieldSet fields = UserFieldSet.parse("address.geo,company.name");
+
+    // Assert
+    assertEquals(
+        List.of(
+            "id", "address.geo.lat", "address.geo.lng", "company.name", "address.id", "company.id"),
+        fields.getColumns());
+    assertTrue(fields.includes(UserFieldSet.ADDRESS));
+    assertTrue(fields.includes(UserFieldSet.COMPANY));
+  }
+
+  @Test
+  void parse_WithUnknownOrHiddenField_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> UserFieldSet.parse("id,password"));
+    assertThrows(IllegalArgumentException.class, () -> UserFieldSet.parse("address.country"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void toDocument_ShouldNestValuesAndNullMissingRelations() {
+    // Arrange
+    final UserFieldSet fields = UserFieldSet.parse("name,address.city,company.name");
+
+    // Act
+    final Map<String, Object> document =
+        fields.toDocument(new Object[] {1L, "Leanne", "Gwenborough", null, 7L, null});
+
+    // Assert
+    assertEquals(1L, document.get("id"));
+    assertEquals("Leanne", document.get("name"));
+    assertEquals("Gwenborough", ((Map<String, Object>) document.get("address")).get("city"));
+    assertTrue(document.containsKey("company"));
+    assertNull(document.get("company"));
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RequestSqlStatsTest {
+
+  @AfterEach
+  void tearDown() {
+    RequestSqlStats.end();
+  }
+
+  @Test
+  void record_ShouldCountStatementsAndTime() {
+    // Arrange
+    final RequestSqlStats stats = RequestSqlStats.begin();
+
+    // Act
+    stats.record("select * from users where id=?", 2_000_000, false);
+    stats.record("select * from addresses where id=?", 3_000_000, false);
+
+    // Assert
+    assertEquals(2, stats.statements());
+    assertEquals(Duration.ofMillis(5), stats.time());
+    assertSame(stats, RequestSqlStats.current());
+  }
+
+  @Test
+  void repeated_ShouldFlagStatementsAtTheThresholdButNotBatches() {
+    // Arrange
+    final RequestSqlStats stats = RequestSqlStats.begin();
+    for (int i = 0; i < 5; i++) {
+      stats.record("select * from companies where id=?", 1000, false);
+      stats.record("insert into users values (?)", 1000, true);
+    }
+    stats.record("select * from users", 1000, false);
+
+    // Act
+    final Map<String, Integer> repeated = stats.repeated(5);
+
+    // Assert
+    assertEquals(Map.of("select * from companies where id=?", 5), repeated);
+    assertEquals(11, stats.statements());
+  }
+
+  @Test
+  void current_AfterEnd_ShouldBeNull() {
+    // Arrange
+    RequestSqlStats.begin();
+
+    // Act
+    RequestSqlStats.end();
+
+    // Assert
+    assertNull(RequestSqlStats.current());
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import java.util.Map;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc expectations on the SQL a request ran, read from the {@link RequestSqlStats} that {@link
+ * SqlRequestMonitor} leaves on the request. Needs a context with the proxied DataSource, for
+ * instance {@code @SpringBootTest} with {@code @AutoConfigureMockMvc}.
+ */
+public final class SqlStatements {
+
+  private SqlStatements() {}
+
+  public static ResultMatcher atMost(final int expected) {
+    return result -> {
+      final RequestSqlStats stats = statsOf(result);
+      if (stats.statements() > expected) {
+        throw new AssertionError(
+            "Expected at most " + expected + " SQL statements but the request ran " + stats);
+      }
+    };
+  }
+
+  public static ResultMatcher noneRepeated(final int threshold) {
+    return result -> {
+      final RequestSqlStats stats = statsOf(result);
+      final Map<String, Integer> repeated = stats.repeated(threshold);
+      if (!repeated.isEmpty()) {
+        throw new AssertionError("Statements repeated within the request: " + repeated);
+      }
+    };
+  }
+
+  private static RequestSqlStats statsOf(final MvcResult result) {
+    final Object attribute = result.getRequest().getAttribute(RequestSqlStats.REQUEST_ATTRIBUTE);
+    if (!(attribute instanceof RequestSqlStats stats)) {
+      throw new AssertionError("The request was not seen by " + SqlRequestMonitor.class.getName());
+    }
+    return stats;
+  }
+}
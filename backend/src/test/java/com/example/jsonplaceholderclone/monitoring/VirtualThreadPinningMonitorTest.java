@@ -0,0 +1,30 @@
+package com.example.jsonplaceholderclone.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadPinningMonitorTest {
+
+  @Test
+  void source_ShouldNameInnermostRecognisedLayer() {
+    assertEquals(
+        "jdbc",
+        VirtualThreadPinningMonitor.source(
+            List.of(
+                "java.lang.Object",
+                "org.postgresql.core.v3.QueryExecutorImpl",
+                "com.zaxxer.hikari.pool.ProxyPreparedStatement",
+                "com.example.jsonplaceholderclone.repository.UserRepositoryCustomImpl")));
+    assertEquals(
+        "hikari",
+        VirtualThreadPinningMonitor.source(
+            List.of("com.zaxxer.hikari.pool.HikariPool", "org.springframework.orm.jpa.X")));
+    assertEquals(
+        "app",
+        VirtualThreadPinningMonitor.source(
+            List.of("com.example.jsonplaceholderclone.cache.UserJsonCache")));
+    assertEquals("other", VirtualThreadPinningMonitor.source(List.of("java.io.FileOutputStream")));
+  }
+}
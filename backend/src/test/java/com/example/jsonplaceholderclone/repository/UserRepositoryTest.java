@@ -2,22 +2,56 @@ package com.example.jsonplaceholderclone.repository;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.GeoRadius;
+import com.example.jsonplaceholderclone.dto.PageCursor;
+import com.example.jsonplaceholderclone.dto.UserDistance;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.dto.UserVersion;
 import com.example.jsonplaceholderclone.model.Address;
 import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.Geo;
 import com.example.jsonplaceholderclone.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
 class UserRepositoryTest {
 
   @Autowired private TestEntityManager entityManager;
 
   @Autowired private UserRepository userRepository;
 
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
   @Test
   void findByUsername_WhenUserExists_ShouldReturnUser() {
     // Arrange
@@ -88,6 +122,443 @@ class UserRepositoryTest {
     assertFalse(exists);
   }
 
+  @Test
+  void findPage_ShouldReturnNextPageInIdOrder() {
+    // Arrange
+    final User first = entityManager.persist(createSampleUser("first"));
+    final User second = entityManager.persist(createSampleUser("second"));
+    final User third = entityManager.persist(createSampleUser("third"));
+    entityManager.flush();
+
+    // Act
+    final List<User> page =
+        userRepository.findPage(
+            new UserFilter(), UserSort.BY_ID, new PageCursor("id", first.getId(), null), 2);
+
+    // Assert
+    assertEquals(List.of(second.getId(), third.getId()), ids(page));
+  }
+
+  @Test
+  void findPage_WithFilters_ShouldMatchIndexedColumnsOnly() {
+    // Arrange
+    final User match = createSampleUser("alpha_1");
+    match.setEmail("alpha@Partner.COM");
+    match.getAddress().setCity("Lisbon");
+    match.getCompany().setName("Acme");
+    entityManager.persist(match);
+    final User otherCity = createSampleUser("alpha_2");
+    otherCity.setEmail("alpha2@partner.com");
+    entityManager.persist(otherCity);
+    entityManager.persist(createSampleUser("alphax3"));
+    entityManager.flush();
+
+    final UserFilter filter = new UserFilter();
+    filter.setEmailDomain("partner.com");
+    filter.setUsernamePrefix("alpha_");
+    filter.setCity("Lisbon");
+    filter.setCompany("Acme");
+
+    // Act
+    final List<User> page = userRepository.findPage(filter, UserSort.BY_ID, null, 10);
+
+    // Assert
+    assertEquals(List.of(match.getId()), ids(page));
+    assertEquals(1, userRepository.countMatching(filter));
+  }
+
+  @Test
+  void findPage_ByUsernamePrefix_ShouldTreatWildcardsLiterally() {
+    // Arrange
+    final User literal = entityManager.persist(createSampleUser("pre_fix"));
+    entityManager.persist(createSampleUser("preXfix"));
+    entityManager.flush();
+    final UserFilter filter = new UserFilter();
+    filter.setUsernamePrefix("pre_");
+
+    // Act
+    final List<User> page = userRepository.findPage(filter, UserSort.BY_ID, null, 10);
+
+    // Assert
+    assertEquals(List.of(literal.getId()), ids(page));
+  }
+
+  @Test
+  void findPage_SortedByNameDescending_ShouldWalkTiesById() {
+    // Arrange
+    final UserFilter filter = new UserFilter();
+    filter.setEmailDomain("sorted.test");
+    final User a = entityManager.persist(createSampleUser("sortA", "Same", "sorted.test"));
+    final User b = entityManager.persist(createSampleUser("sortB", "Same", "sorted.test"));
+    final User c = entityManager.persist(createSampleUser("sortC", "Zed", "sorted.test"));
+    entityManager.flush();
+    final UserSort sort = UserSort.parse("-name");
+
+    // Act
+    final List<User> firstPage = userRepository.findPage(filter, sort, null, 2);
+    final User last = firstPage.get(1);
+    final List<User> secondPage =
+        userRepository.findPage(
+            filter, sort, new PageCursor("-name", last.getId(), last.getName()), 2);
+
+    // Assert
+    assertEquals(List.of(c.getId(), b.getId()), ids(firstPage));
+    assertEquals(List.of(a.getId()), ids(secondPage));
+  }
+
+  @Test
+  void approximateCount_ShouldCountUsers() {
+    // Arrange
+    final long before = userRepository.approximateCount();
+    entityManager.persist(createSampleUser());
+    entityManager.flush();
+
+    // Act
+    final long after = userRepository.approximateCount();
+
+    // Assert
+    assertEquals(before + 1, after);
+  }
+
+  @Test
+  void forEachUser_ShouldVisitUsersInIdOrderAndDetachThem() {
+    // Arrange
+    final User first = entityManager.persist(createSampleUser("first"));
+    final User second = entityManager.persist(createSampleUser("second"));
+    entityManager.flush();
+    entityManager.clear();
+    final List<User> visited = new ArrayList<>();
+
+    // Act
+    userRepository.forEachUser(visited::add);
+
+    // Assert
+    final List<Long> ids = visited.stream().map(User::getId).toList();
+    assertTrue(ids.indexOf(first.getId()) < ids.indexOf(second.getId()));
+    assertTrue(visited.stream().noneMatch(user -> entityManager.getEntityManager().contains(user)));
+    assertNotNull(visited.get(ids.indexOf(first.getId())).getAddress());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void findFieldsById_ShouldReturnOnlyRequestedColumns() {
+    // Arrange
+    final User user = entityManager.persist(createSampleUser());
+    entityManager.flush();
+
+    // Act
+    final Optional<Map<String, Object>> found =
+        userRepository.findFieldsById(UserFieldSet.parse("username,address.city"), user.getId());
+
+    // Assert
+    assertTrue(found.isPresent());
+    assertEquals(Set.of("id", "username", "address"), found.get().keySet());
+    assertEquals(
+        Map.of("city", "Test City"), (Map<String, Object>) found.get().get("address"));
+  }
+
+  @Test
+  void findFieldsPage_ShouldPageInIdOrder() {
+    // Arrange
+    final User first = entityManager.persist(createSampleUser("first"));
+    final User second = entityManager.persist(createSampleUser("second"));
+    entityManager.flush();
+
+    // Act
+    final List<Map<String, Object>> page =
+        userRepository.findFieldsPage(
+            UserFieldSet.parse("username"),
+            new UserFilter(),
+            UserSort.BY_ID,
+            new PageCursor("id", first.getId() - 1, null),
+            2);
+
+    // Assert
+    assertEquals(2, page.size());
+    assertEquals(Map.of("id", first.getId(), "username", "first"), page.get(0));
+    assertEquals(Map.of("id", second.getId(), "username", "second"), page.get(1));
+  }
+
+  @Test
+  void findNearest_ShouldSearchAcrossAntimeridianAndDropBoxCorners() {
+    // Arrange
+    final User east = entityManager.persist(createSampleUser("east", 0.0, -179.95));
+    final User west = entityManager.persist(createSampleUser("west", 0.0, 179.7));
+    entityManager.persist(createSampleUser("corner", 0.4, -179.65));
+    entityManager.persist(createSampleUser("north", 10.0, 179.95));
+    entityManager.flush();
+
+    // Act
+    final List<UserDistance> nearest =
+        userRepository.findNearest(GeoRadius.of(0.0, 179.95, 50), 10);
+
+    // Assert
+    assertEquals(
+        List.of(east.getId(), west.getId()),
+        nearest.stream().map(distance -> distance.getUser().getId()).toList());
+    assertEquals(11.1, nearest.get(0).getDistanceKm(), 0.1);
+    assertNotNull(nearest.get(0).getUser().getCompany());
+    assertEquals(1, userRepository.findNearest(GeoRadius.of(0.0, 179.95, 50), 1).size());
+  }
+
+  @Test
+  void versions_ShouldMoveWhenUserOrOwnedRowsChange() {
+    // Arrange
+    final User user = entityManager.persist(createSampleUser("versioned"));
+    entityManager.flush();
+    final UserVersion initial = userRepository.findVersionById(user.getId()).orElseThrow();
+
+    // Act
+    user.getAddress().setCity("Elsewhere");
+    entityManager.flush();
+    final UserVersion afterAddressChange =
+        userRepository.findVersionById(user.getId()).orElseThrow();
+
+    // Assert
+    assertEquals(initial.getVersion(), afterAddressChange.getVersion());
+    assertNotEquals(initial.getAddressVersion(), afterAddressChange.getAddressVersion());
+    assertNotEquals(initial.etag(), afterAddressChange.etag());
+    assertEquals(
+        List.of(afterAddressChange),
+        userRepository.findVersionsPage(
+            new UserFilter(), UserSort.BY_ID, new PageCursor("id", user.getId() - 1, null), 1));
+  }
+
+  @Test
+  void bulkUpdate_ShouldUpdateSelectedRowsAndBumpVersions() {
+    // Arrange
+    final User first = entityManager.persist(createSampleUser("cohort1", "One", "cohort.test"));
+    final User second = entityManager.persist(createSampleUser("cohort2", "Two", "cohort.test"));
+    final User outsider = entityManager.persist(createSampleUser("outsider", "Out", "other.test"));
+    entityManager.flush();
+    final UserVersion before = userRepository.findVersionById(first.getId()).orElseThrow();
+    final UserFilter filter = new UserFilter();
+    filter.setEmailDomain("cohort.test");
+    final User changes = new User();
+    changes.setWebsite("newco.example");
+    final Company company = new Company();
+    company.setName("NewCo");
+    changes.setCompany(company);
+
+    // Act
+    final List<Long> ids = userRepository.findIdsMatching(filter, null, 10);
+    final BulkResult result = userRepository.bulkUpdate(ids, changes);
+
+    // Assert
+    assertEquals(List.of(first.getId(), second.getId()), ids);
+    assertEquals(new BulkResult(2, 0, 2), result);
+    final User updated = userRepository.findById(second.getId()).orElseThrow();
+    assertEquals("newco.example", updated.getWebsite());
+    assertEquals("NewCo", updated.getCompany().getName());
+    assertEquals("Test Catch Phrase", updated.getCompany().getCatchPhrase());
+    final UserVersion after = userRepository.findVersionById(first.getId()).orElseThrow();
+    assertNotEquals(before.getVersion(), after.getVersion());
+    assertNotEquals(before.getCompanyVersion(), after.getCompanyVersion());
+    assertEquals(before.getAddressVersion(), after.getAddressVersion());
+    final User untouched = userRepository.findById(outsider.getId()).orElseThrow();
+    assertEquals("Test Company", untouched.getCompany().getName());
+  }
+
+  @Test
+  void bulkDelete_ShouldRemoveUsersWithTheirAddressAndCompany() {
+    // Arrange
+    final User doomed = entityManager.persist(createSampleUser("doomed"));
+    final User kept = entityManager.persist(createSampleUser("kept"));
+    entityManager.flush();
+    final Long addressId = doomed.getAddress().getId();
+    final Long companyId = doomed.getCompany().getId();
+
+    // Act
+    final List<Long> ids =
+        userRepository.findIdsMatching(new UserFilter(), List.of(doomed.getId()), 10);
+    final BulkResult result = userRepository.bulkDelete(ids);
+
+    // Assert
+    assertEquals(new BulkResult(1, 1, 1), result);
+    assertTrue(userRepository.findById(doomed.getId()).isEmpty());
+    assertNull(entityManager.find(Address.class, addressId));
+    assertNull(entityManager.find(Company.class, companyId));
+    assertTrue(userRepository.findById(kept.getId()).isPresent());
+  }
+
+  @Test
+  void findIdsMatching_WithMoreIdsThanOneChunk_ShouldReturnMatchesInIdOrder() {
+    // Arrange
+    final User first = entityManager.persist(createSampleUser("first"));
+    final User second = entityManager.persist(createSampleUser("second"));
+    entityManager.flush();
+    final List<Long> ids = new ArrayList<>(List.of(second.getId(), first.getId()));
+    LongStream.rangeClosed(1, 2500).forEach(missing -> ids.add(-missing));
+
+    // Act
+    final List<Long> matching = userRepository.findIdsMatching(new UserFilter(), ids, 10);
+
+    // Assert
+    assertEquals(List.of(first.getId(), second.getId()), matching);
+  }
+
+  @Test
+  void findAll_ShouldLoadAddressAndCompanyInOneStatement() {
+    // Arrange
+    for (int i = 0; i < 5; i++) {
+      entityManager.persist(createSampleUser("graph" + i));
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+
+    // Act
+    final List<User> users = userRepository.findAll();
+
+    // Assert
+    assertTrue(users.size() >= 5);
+    users.forEach(user -> assertNotNull(user.getAddress()));
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void singleRowLookups_ShouldEachRunOneStatement() {
+    // Arrange
+    final User user = entityManager.persist(createSampleUser());
+    entityManager.flush();
+
+    // Act & Assert
+    entityManager.clear();
+    statistics.clear();
+    assertTrue(userRepository.findById(user.getId()).isPresent());
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    entityManager.clear();
+    statistics.clear();
+    assertNotNull(userRepository.findByUsername(user.getUsername()).orElseThrow().getCompany());
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    entityManager.clear();
+    statistics.clear();
+    assertNotNull(userRepository.findByEmail(user.getEmail()).orElseThrow().getAddress());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void findById_AfterCommit_ShouldBeServedFromSecondLevelCache() {
+    // Arrange
+    final User user = userRepository.save(createSampleUser("cached"));
+    try {
+      statistics.clear();
+
+      // Act
+      final User found = userRepository.findById(user.getId()).orElseThrow();
+
+      // Assert
+      assertEquals("Test City", found.getAddress().getCity());
+      assertEquals("Test Company", found.getCompany().getName());
+      assertEquals(0, statistics.getPrepareStatementCount());
+      assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    } finally {
+      userRepository.deleteById(user.getId());
+    }
+  }
+
+  @Test
+  void insertAll_ShouldBatchInsertsPerTable() {
+    // Arrange
+    final List<User> users = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      users.add(createSampleUser("batch" + i));
+    }
+    statistics.clear();
+
+    // Act
+    userRepository.insertAll(users);
+
+    // Assert: one batched insert per table plus at most one id block fetch per sequence
+    assertTrue(statistics.getPrepareStatementCount() <= 6);
+    users.forEach(user -> assertNotNull(user.getId()));
+    final User found = userRepository.findByUsername("batch7").orElseThrow();
+    assertEquals(users.get(7).getId(), found.getId());
+    assertEquals("Test Company", found.getCompany().getName());
+  }
+
+  @Test
+  void storePendingPasswords_ShouldOnlyFillMissingPasswordsInOneBatch() {
+    // Arrange
+    final User pending = createSampleUser("pending");
+    pending.setPassword(null);
+    final User changedMeanwhile = createSampleUser("changed");
+    changedMeanwhile.setPassword("{bcrypt}other");
+    final User abandoned = createSampleUser("abandoned");
+    abandoned.setPassword(null);
+    userRepository.insertAll(List.of(pending, changedMeanwhile, abandoned));
+    userRepository.markPasswordsPending(
+        List.of(pending.getId(), changedMeanwhile.getId(), abandoned.getId()));
+    final Long versionBefore =
+        userRepository.findVersionById(pending.getId()).orElseThrow().getVersion();
+    final Map<Long, String> hashes = new LinkedHashMap<>();
+    hashes.put(pending.getId(), "{bcrypt}hashed");
+    hashes.put(changedMeanwhile.getId(), "{bcrypt}late");
+
+    // Act
+    final List<Long> stored = userRepository.storePendingPasswords(hashes);
+
+    // Assert
+    assertEquals(List.of(pending.getId()), stored);
+    assertEquals(
+        "{bcrypt}hashed", userRepository.findById(pending.getId()).orElseThrow().getPassword());
+    assertEquals(
+        "{bcrypt}other",
+        userRepository.findById(changedMeanwhile.getId()).orElseThrow().getPassword());
+    assertNotEquals(
+        versionBefore,
+        userRepository.findVersionById(pending.getId()).orElseThrow().getVersion());
+    assertEquals(List.of(abandoned.getId()), userRepository.findPendingPasswords());
+  }
+
+  @Test
+  void findPage_ShouldLoadPageInOneStatement() {
+    // Arrange
+    for (int i = 0; i < 3; i++) {
+      entityManager.persist(createSampleUser("keyset" + i));
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics.clear();
+
+    // Act
+    final List<User> page = userRepository.findPage(new UserFilter(), UserSort.BY_ID, null, 100);
+
+    // Assert
+    page.forEach(user -> assertNotNull(user.getCompany()));
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  private static List<Long> ids(final List<User> users) {
+    return users.stream().map(User::getId).toList();
+  }
+
+  private User createSampleUser(final String username, final String name, final String domain) {
+    final User user = createSampleUser(username);
+    user.setName(name);
+    user.setEmail(username + "@" + domain);
+    return user;
+  }
+
+  private User createSampleUser(final String username, final double lat, final double lng) {
+    final User user = createSampleUser(username);
+    final Geo geo = new Geo();
+    geo.setLat(lat);
+    geo.setLng(lng);
+    user.getAddress().setGeo(geo);
+    return user;
+  }
+
+  private User createSampleUser(final String username) {
+    final User user = createSampleUser();
+    user.setUsername(username);
+    user.setEmail(username + "@example.com");
+    return user;
+  }
+
   private User createSampleUser() {
     final User user = new User();
     user.setName("Test User");
@@ -0,0 +1,85 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final BoundedPasswordEncoder encoder =
+      new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 2);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    encoder.shutdown();
+  }
+
+  @Test
+  void encodeAndMatches_ShouldRunOnThePoolAndBeTimed() {
+    // Arrange
+    release.countDown();
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    encoder.bindTo(registry);
+
+    // Act
+    final String encoded = encoder.encode("secret");
+
+    // Assert
+    assertEquals("{hashed}secret", encoded);
+    assertTrue(encoder.matches("secret", encoded));
+    assertEquals(
+        1, registry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+    assertEquals(2, registry.get("password.hashing.wait").timer().count());
+  }
+
+  @Test
+  void encode_WhenQueueIsFull_ShouldFailFast() throws Exception {
+    // Arrange: one call hashing, one waiting in the queue
+    final CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    final CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+    while (encoder.queueDepth() == 0) {
+      Thread.onSpinWait();
+    }
+
+    // Act
+    final PasswordHashingBusyException exception =
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+
+    // Assert
+    assertEquals(2, exception.getRetryAfterSeconds());
+    release.countDown();
+    assertEquals("{hashed}first", running.get(5, TimeUnit.SECONDS));
+    assertEquals("{hashed}second", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  private final class BlockingEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "{hashed}" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+      return encode(rawPassword).equals(encodedPassword);
+    }
+  }
+}
@@ -1,81 +1,145 @@
 package com.example.jsonplaceholderclone.security;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
 @ExtendWith(MockitoExtension.class)
 class JwtAuthenticationFilterTest {
 
   @Mock private JwtTokenProvider tokenProvider;
 
-  @Mock private UserDetailsService userDetailsService;
-
   @Mock private HttpServletRequest request;
 
   @Mock private HttpServletResponse response;
 
   @Mock private FilterChain filterChain;
 
-  @Mock private UserDetails userDetails;
+  private TokenWatermarks tokenWatermarks;
+
+  private TokenDenylist tokenDenylist;
 
   private JwtAuthenticationFilter filter;
 
   @BeforeEach
   void setUp() {
-    filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService);
+    final RevocationLog revocationLog = new RevocationLog("", Clock.systemUTC());
+    tokenWatermarks = new TokenWatermarks(3600000L, revocationLog);
+    tokenDenylist = new TokenDenylist(revocationLog, Duration.ofMinutes(1), 60, Clock.systemUTC());
+    filter = new JwtAuthenticationFilter(tokenProvider, tokenWatermarks, tokenDenylist);
     SecurityContextHolder.clearContext();
   }
 
   @Test
-  void doFilterInternal_WithValidToken_ShouldSetAuthentication()
+  void doFilterInternal_WithValidToken_ShouldAuthenticateFromClaims()
       throws ServletException, IOException {
     // Arrange
     final String token = "valid.jwt.token";
-    final String username = "testuser";
     when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-    when(tokenProvider.validateToken(token)).thenReturn(true);
-    when(tokenProvider.getUsername(token)).thenReturn(username);
-    when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
+    when(tokenProvider.verify(token)).thenReturn(Optional.of(claims(7L, new Date())));
+
+    // Act
+    filter.doFilterInternal(request, response, filterChain);
+
+    // Assert
+    final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    final UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+    assertEquals(7L, principal.getId());
+    assertEquals("testuser", principal.getUsername());
+    assertEquals(
+        List.of("ROLE_USER"),
+        authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    verify(filterChain, times(1)).doFilter(request, response);
+  }
+
+  @Test
+  void doFilterInternal_WithTokenIssuedBeforeWatermark_ShouldNotSetAuthentication()
+      throws ServletException, IOException {
+    // Arrange
+    final String token = "old.jwt.token";
+    when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+    when(tokenProvider.verify(token))
+        .thenReturn(Optional.of(claims(7L, new Date(System.currentTimeMillis() - 60_000))));
+    tokenWatermarks.invalidate(7L);
 
     // Act
     filter.doFilterInternal(request, response, filterChain);
 
     // Assert
-    verify(tokenProvider, times(1)).validateToken(token);
-    verify(tokenProvider, times(1)).getUsername(token);
-    verify(userDetailsService, times(1)).loadUserByUsername(username);
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
     verify(filterChain, times(1)).doFilter(request, response);
   }
 
+  @Test
+  void doFilterInternal_WithRevokedToken_ShouldNotSetAuthentication()
+      throws ServletException, IOException {
+    // Arrange
+    final String token = "revoked.jwt.token";
+    final Claims claims = claims(7L, new Date());
+    when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+    when(tokenProvider.verify(token)).thenReturn(Optional.of(claims));
+    tokenDenylist.revoke(claims.getId(), claims.getExpiration());
+
+    // Act
+    filter.doFilterInternal(request, response, filterChain);
+
+    // Assert
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+    verify(filterChain, times(1)).doFilter(request, response);
+  }
+
+  @Test
+  void doFilterInternal_WithTokenWithoutUserId_ShouldNotSetAuthentication()
+      throws ServletException, IOException {
+    // Arrange
+    final String token = "legacy.jwt.token";
+    when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+    when(tokenProvider.verify(token))
+        .thenReturn(Optional.of(Jwts.claims().setSubject("testuser").setIssuedAt(new Date())));
+
+    // Act
+    filter.doFilterInternal(request, response, filterChain);
+
+    // Assert
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
+  }
+
   @Test
   void doFilterInternal_WithInvalidToken_ShouldNotSetAuthentication()
       throws ServletException, IOException {
     // Arrange
     final String token = "invalid.jwt.token";
     when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-    when(tokenProvider.validateToken(token)).thenReturn(false);
+    when(tokenProvider.verify(token)).thenReturn(Optional.empty());
 
     // Act
     filter.doFilterInternal(request, response, filterChain);
 
     // Assert
-    verify(tokenProvider, times(1)).validateToken(token);
-    verify(tokenProvider, never()).getUsername(any());
-    verify(userDetailsService, never()).loadUserByUsername(any());
+    verify(tokenProvider, times(1)).verify(token);
+    assertNull(SecurityContextHolder.getContext().getAuthentication());
     verify(filterChain, times(1)).doFilter(request, response);
   }
 
@@ -89,9 +153,7 @@ class JwtAuthenticationFilterTest {
     filter.doFilterInternal(request, response, filterChain);
 
     // Assert
-    verify(tokenProvider, never()).validateToken(any());
-    verify(tokenProvider, never()).getUsername(any());
-    verify(userDetailsService, never()).loadUserByUsername(any());
+    verify(tokenProvider, never()).verify(any());
     verify(filterChain, times(1)).doFilter(request, response);
   }
 
@@ -105,9 +167,20 @@ class JwtAuthenticationFilterTest {
     filter.doFilterInternal(request, response, filterChain);
 
     // Assert
-    verify(tokenProvider, never()).validateToken(any());
-    verify(tokenProvider, never()).getUsername(any());
-    verify(userDetailsService, never()).loadUserByUsername(any());
+    verify(tokenProvider, never()).verify(any());
     verify(filterChain, times(1)).doFilter(request, response);
   }
+
+  private static Claims claims(final Long userId, final Date issuedAt) {
+    final Claims claims =
+        Jwts.claims()
+            .setId(UUID.randomUUID().toString())
+            .setSubject("testuser")
+            .setIssuedAt(issuedAt)
+            .setExpiration(new Date(issuedAt.getTime() + 3600000L));
+    claims.put(JwtTokenProvider.USER_ID_CLAIM, userId);
+    claims.put(JwtTokenProvider.ISSUED_AT_MILLIS_CLAIM, issuedAt.getTime());
+    claims.put(JwtTokenProvider.ROLES_CLAIM, List.of("ROLE_USER"));
+    return claims;
+  }
 }
@@ -3,37 +3,34 @@ package com.example.jsonplaceholderclone.security;
 import static org.junit.jupiter.api.Assertions.*;
 
 import io.jsonwebtoken.Claims;
-import java.util.Collections;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 
 class JwtTokenProviderTest {
 
   private JwtTokenProvider tokenProvider;
   private final String jwtSecret = "testSecretKey123456789012345678901234567890";
-  private final int jwtExpirationInMs = 3600000; // 1 hour
+  private final long jwtExpirationInMs = 3600000; // 1 hour
 
   @BeforeEach
   void setUp() {
-    tokenProvider = new JwtTokenProvider();
-    org.springframework.test.util.ReflectionTestUtils.setField(
-        tokenProvider, "jwtSecret", jwtSecret);
-    org.springframework.test.util.ReflectionTestUtils.setField(
-        tokenProvider, "jwtExpirationInMs", jwtExpirationInMs);
+    tokenProvider = new JwtTokenProvider(jwtSecret, jwtExpirationInMs, 100);
   }
 
   @Test
   void generateToken_ShouldCreateValidToken() {
     // Arrange
-    final Authentication authentication =
-        new UsernamePasswordAuthenticationToken(
-            "testuser",
-            "password",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+    final Authentication authentication = authenticationFor("testuser");
 
     // Act
     final String token = tokenProvider.generateToken(authentication);
@@ -47,12 +44,7 @@ class JwtTokenProviderTest {
   void getUsername_ShouldReturnUsernameFromToken() {
     // Arrange
     final String username = "testuser";
-    final Authentication authentication =
-        new UsernamePasswordAuthenticationToken(
-            username,
-            "password",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-    final String token = tokenProvider.generateToken(authentication);
+    final String token = tokenProvider.generateToken(authenticationFor(username));
 
     // Act
     final String extractedUsername = tokenProvider.getUsername(token);
@@ -64,12 +56,7 @@ class JwtTokenProviderTest {
   @Test
   void validateToken_WithValidToken_ShouldReturnTrue() {
     // Arrange
-    final Authentication authentication =
-        new UsernamePasswordAuthenticationToken(
-            "testuser",
-            "password",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-    final String token = tokenProvider.generateToken(authentication);
+    final String token = tokenProvider.generateToken(authenticationFor("testuser"));
 
     // Act
     final boolean isValid = tokenProvider.validateToken(token);
@@ -93,17 +80,8 @@ class JwtTokenProviderTest {
   @Test
   void validateToken_WithExpiredToken_ShouldReturnFalse() {
     // Arrange
-    final JwtTokenProvider expiredTokenProvider = new JwtTokenProvider();
-    ReflectionTestUtils.setField(expiredTokenProvider, "jwtSecret", jwtSecret);
-    ReflectionTestUtils.setField(
-        expiredTokenProvider, "jwtExpirationInMs", 0L); // Expired immediately
-
-    final Authentication authentication =
-        new UsernamePasswordAuthenticationToken(
-            "testuser",
-            "password",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-    final String expiredToken = expiredTokenProvider.generateToken(authentication);
+    final JwtTokenProvider expiredTokenProvider = new JwtTokenProvider(jwtSecret, -1000L, 100);
+    final String expiredToken = expiredTokenProvider.generateToken(authenticationFor("testuser"));
 
     // Act
     final boolean isValid = tokenProvider.validateToken(expiredToken);
@@ -116,12 +94,7 @@ class JwtTokenProviderTest {
   void getClaims_ShouldReturnValidClaims() {
     // Arrange
     final String username = "testuser";
-    final Authentication authentication =
-        new UsernamePasswordAuthenticationToken(
-            username,
-            "password",
-            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
-    final String token = tokenProvider.generateToken(authentication);
+    final String token = tokenProvider.generateToken(authenticationFor(username));
 
     // Act
     final Claims claims = tokenProvider.getClaims(token);
@@ -130,4 +103,103 @@ class JwtTokenProviderTest {
     assertNotNull(claims);
     assertEquals(username, claims.getSubject());
   }
+
+  @Test
+  void issuedAt_ShouldHaveMillisecondPrecision() {
+    // Arrange
+    final long before = System.currentTimeMillis();
+    final String token = tokenProvider.generateToken(authenticationFor("testuser"));
+    final long after = System.currentTimeMillis();
+
+    // Act
+    final long issuedAt = JwtTokenProvider.issuedAt(tokenProvider.getClaims(token)).getTime();
+
+    // Assert
+    assertTrue(issuedAt >= before && issuedAt <= after);
+  }
+
+  @Test
+  void principalOf_WithoutMillisecondClaim_ShouldReturnEmpty() {
+    // Arrange
+    final Claims claims = Jwts.claims().setSubject("testuser").setIssuedAt(new Date());
+    claims.put(JwtTokenProvider.USER_ID_CLAIM, 1L);
+
+    // Act & Assert
+    assertTrue(JwtTokenProvider.principalOf(claims).isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> JwtTokenProvider.issuedAt(claims));
+  }
+
+  @Test
+  void verify_WithRepeatedToken_ShouldReuseVerifiedClaims() {
+    // Arrange
+    final String token = tokenProvider.generateToken(authenticationFor("testuser"));
+
+    // Act
+    final Optional<Claims> first = tokenProvider.verify(token);
+    final Optional<Claims> second = tokenProvider.verify(token);
+
+    // Assert
+    assertTrue(first.isPresent());
+    assertSame(first.get(), second.orElseThrow());
+  }
+
+  @Test
+  void verify_WithForeignSignature_ShouldReturnEmpty() {
+    // Arrange
+    final JwtTokenProvider otherProvider =
+        new JwtTokenProvider("anotherSecretKey12345678901234567890123456", jwtExpirationInMs, 100);
+    final String token = otherProvider.generateToken(authenticationFor("testuser"));
+
+    // Act
+    final Optional<Claims> claims = tokenProvider.verify(token);
+
+    // Assert
+    assertTrue(claims.isEmpty());
+  }
+
+  @Test
+  void principalOf_ShouldRestoreUserFromTokenClaims() {
+    // Arrange
+    final UserPrincipal user =
+        new UserPrincipal(
+            42L, "testuser", "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    final String token =
+        tokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+    // Act
+    final UserPrincipal principal =
+        tokenProvider.verify(token).flatMap(JwtTokenProvider::principalOf).orElseThrow();
+
+    // Assert
+    assertEquals(42L, principal.getId());
+    assertEquals("testuser", principal.getUsername());
+    assertNull(principal.getPassword());
+    assertEquals(user.getAuthorities(), principal.getAuthorities());
+  }
+
+  @Test
+  void generateAndVerify_ShouldBeTimedByResult() {
+    // Arrange
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    tokenProvider.bindTo(registry);
+    final String token = tokenProvider.generateToken(authenticationFor("testuser"));
+
+    // Act
+    tokenProvider.verify(token);
+    tokenProvider.verify(token);
+    tokenProvider.verify("invalid.token.here");
+
+    // Assert
+    assertEquals(1, registry.get("jwt.sign").timer().count());
+    assertEquals(1, registry.get("jwt.verify").tag("result", "verified").timer().count());
+    assertEquals(1, registry.get("jwt.verify").tag("result", "cached").timer().count());
+    assertEquals(1, registry.get("jwt.verify").tag("result", "invalid").timer().count());
+  }
+
+  private static Authentication authenticationFor(final String username) {
+    final UserDetails user =
+        User.withUsername(username).password("password").authorities("ROLE_USER").build();
+    return new UsernamePasswordAuthenticationToken(user, "password", user.getAuthorities());
+  }
 }
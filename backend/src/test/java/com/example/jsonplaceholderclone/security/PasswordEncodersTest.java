@@ -0,0 +1,75 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncodersTest {
+
+  @Test
+  void create_ShouldPrefixHashesWithTheAlgorithm() {
+    // Arrange
+    final PasswordEncoder encoder = PasswordEncoders.create(PasswordEncoders.ARGON2, 4, 1024, 1);
+
+    // Act
+    final String hash = encoder.encode("secret");
+
+    // Assert
+    assertTrue(hash.startsWith("{argon2}$argon2id$"));
+    assertTrue(encoder.matches("secret", hash));
+    assertFalse(encoder.upgradeEncoding(hash));
+  }
+
+  @Test
+  void create_ShouldAcceptLegacyHashesAndAskForUpgrades() {
+    // Arrange
+    final PasswordEncoder encoder = PasswordEncoders.create(PasswordEncoders.BCRYPT, 5, 1024, 1);
+    final String legacy = new BCryptPasswordEncoder(5).encode("secret");
+    final String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+    final String otherAlgorithm =
+        PasswordEncoders.create(PasswordEncoders.ARGON2, 5, 1024, 1).encode("secret");
+
+    // Act & Assert
+    assertTrue(encoder.matches("secret", legacy));
+    assertTrue(encoder.upgradeEncoding(legacy));
+    assertTrue(encoder.matches("secret", weaker));
+    assertTrue(encoder.upgradeEncoding(weaker));
+    assertTrue(encoder.matches("secret", otherAlgorithm));
+    assertTrue(encoder.upgradeEncoding(otherAlgorithm));
+    assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+  }
+
+  @Test
+  void create_WithUnknownAlgorithm_ShouldThrow() {
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> PasswordEncoders.create("md5", 10, 1024, 1));
+  }
+
+  @Test
+  void calibrateBcryptStrength_ShouldPickHighestCostWithinTarget() {
+    // Arrange: 50 ms at strength 10, doubling per step
+    final Duration target = Duration.ofMillis(250);
+
+    // Act
+    final int strength =
+        PasswordEncoders.calibrateBcryptStrength(
+            target, cost -> Duration.ofMillis(50L << (cost - 10)).toNanos());
+
+    // Assert
+    assertEquals(12, strength);
+  }
+
+  @Test
+  void calibrateBcryptStrength_OnSlowMachine_ShouldNotGoBelowMinimum() {
+    // Act
+    final int strength =
+        PasswordEncoders.calibrateBcryptStrength(
+            Duration.ofMillis(10), cost -> Duration.ofSeconds(1).toNanos());
+
+    // Assert
+    assertEquals(PasswordEncoders.MIN_BCRYPT_STRENGTH, strength);
+  }
+}
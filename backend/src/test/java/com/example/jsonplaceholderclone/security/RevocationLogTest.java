@@ -0,0 +1,82 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RevocationLogTest {
+
+  private static final long NOW = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+  @TempDir private Path dir;
+
+  @Test
+  void entries_AfterReopen_ShouldReplayOnlyLiveRecords() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final RevocationLog.Entry expired =
+        new RevocationLog.Entry(RevocationLog.Kind.TOKEN, NOW + 10, 1L, 2L);
+    final RevocationLog.Entry live =
+        new RevocationLog.Entry(RevocationLog.Kind.WATERMARK, NOW + 3600, 42L, NOW * 1000);
+    try (RevocationLog log = new RevocationLog(file.toString(), clockAt(NOW))) {
+      log.append(expired);
+      log.append(live);
+    }
+
+    // Act
+    try (RevocationLog reopened = new RevocationLog(file.toString(), clockAt(NOW + 60))) {
+      // Assert
+      assertEquals(List.of(live), reopened.entries());
+      assertEquals(25, Files.size(file));
+    }
+  }
+
+  @Test
+  void constructor_WithRelativePath_ShouldFail() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new RevocationLog("data/revocations.log", clockAt(NOW)));
+  }
+
+  @Test
+  void entries_WithTruncatedRecord_ShouldIgnoreIt() throws Exception {
+    // Arrange
+    final Path file = dir.resolve("revocations.log");
+    final RevocationLog.Entry live =
+        new RevocationLog.Entry(RevocationLog.Kind.TOKEN, NOW + 3600, 1L, 2L);
+    try (RevocationLog log = new RevocationLog(file.toString(), clockAt(NOW))) {
+      log.append(live);
+    }
+    Files.write(file, new byte[] {0, 0, 0}, StandardOpenOption.APPEND);
+
+    // Act
+    try (RevocationLog reopened = new RevocationLog(file.toString(), clockAt(NOW))) {
+      // Assert
+      assertEquals(List.of(live), reopened.entries());
+    }
+  }
+
+  @Test
+  void entries_WithBlankPath_ShouldKeepNothing() {
+    // Arrange
+    final RevocationLog log = new RevocationLog("", clockAt(NOW));
+
+    // Act
+    log.append(new RevocationLog.Entry(RevocationLog.Kind.TOKEN, NOW + 3600, 1L, 2L));
+
+    // Assert
+    assertTrue(log.entries().isEmpty());
+  }
+
+  private static Clock clockAt(final long epochSecond) {
+    return Clock.fixed(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TokenDenylistTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+  private TokenDenylist denylist;
+
+  @BeforeEach
+  void setUp() {
+    denylist = new TokenDenylist(new RevocationLog("", clock), Duration.ofMinutes(1), 60, clock);
+  }
+
+  @Test
+  void isRevoked_WithRevokedToken_ShouldReturnTrue() {
+    // Arrange
+    final String jti = UUID.randomUUID().toString();
+
+    // Act
+    denylist.revoke(jti, expiresIn(Duration.ofHours(1)));
+
+    // Assert
+    assertTrue(denylist.isRevoked(jti));
+    assertFalse(denylist.isRevoked(UUID.randomUUID().toString()));
+    assertFalse(denylist.isRevoked(null));
+  }
+
+  @Test
+  void isRevoked_AfterTokenExpiry_ShouldDropEntry() {
+    // Arrange
+    final String shortLived = UUID.randomUUID().toString();
+    final String longLived = UUID.randomUUID().toString();
+    denylist.revoke(shortLived, expiresIn(Duration.ofMinutes(5)));
+    // more than one turn of the 60-minute wheel away, so it survives the first pass of its bucket
+    denylist.revoke(longLived, expiresIn(Duration.ofMinutes(65)));
+
+    // Act
+    clock.advance(Duration.ofMinutes(7));
+    final boolean shortLivedRevoked = denylist.isRevoked(shortLived);
+
+    // Assert
+    assertFalse(shortLivedRevoked);
+    assertEquals(1, denylist.size());
+
+    clock.advance(Duration.ofMinutes(60));
+    assertFalse(denylist.isRevoked(longLived));
+    assertEquals(0, denylist.size());
+  }
+
+  @Test
+  void revoke_WithExpiredToken_ShouldNotKeepEntry() {
+    // Act
+    denylist.revoke(UUID.randomUUID().toString(), expiresIn(Duration.ofSeconds(-1)));
+
+    // Assert
+    assertEquals(0, denylist.size());
+  }
+
+  @Test
+  void constructor_ShouldReplayLiveRevocationsFromLog(@TempDir final Path dir) throws Exception {
+    // Arrange
+    final String path = dir.resolve("revoked-tokens.log").toString();
+    final String jti = UUID.randomUUID().toString();
+    try (RevocationLog log = new RevocationLog(path, clock)) {
+      new TokenDenylist(log, Duration.ofMinutes(1), 60, clock)
+          .revoke(jti, expiresIn(Duration.ofHours(1)));
+    }
+
+    // Act
+    final TokenDenylist restarted =
+        new TokenDenylist(new RevocationLog(path, clock), Duration.ofMinutes(1), 60, clock);
+
+    // Assert
+    assertTrue(restarted.isRevoked(jti));
+  }
+
+  private Date expiresIn(final Duration duration) {
+    return Date.from(clock.instant().plus(duration));
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    void advance(final Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
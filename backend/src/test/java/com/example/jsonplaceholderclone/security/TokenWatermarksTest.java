@@ -0,0 +1,98 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TokenWatermarksTest {
+
+  private TokenWatermarks watermarks;
+
+  @TempDir private Path dir;
+
+  @BeforeEach
+  void setUp() {
+    watermarks = new TokenWatermarks(3600000L, new RevocationLog("", Clock.systemUTC()));
+  }
+
+  @Test
+  void isInvalidated_WithoutWatermark_ShouldReturnFalse() {
+    assertFalse(watermarks.isInvalidated(1L, new Date(0)));
+  }
+
+  @Test
+  void isInvalidated_WithTokenIssuedBeforeWatermark_ShouldReturnTrue() {
+    // Arrange
+    final Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+
+    // Act
+    watermarks.invalidate(1L);
+
+    // Assert
+    assertTrue(watermarks.isInvalidated(1L, issuedAt));
+    assertFalse(watermarks.isInvalidated(2L, issuedAt));
+  }
+
+  @Test
+  void isInvalidated_WithTokenIssuedEarlierInTheSameSecond_ShouldReturnTrue() {
+    // Arrange
+    final Date issuedAt = new Date(System.currentTimeMillis() - 1);
+
+    // Act
+    watermarks.invalidate(1L);
+
+    // Assert
+    assertTrue(watermarks.isInvalidated(1L, issuedAt));
+  }
+
+  @Test
+  void isInvalidated_WithTokenIssuedAfterWatermark_ShouldReturnFalse() {
+    // Arrange
+    watermarks.invalidate(1L);
+
+    // Act
+    final boolean invalidated =
+        watermarks.isInvalidated(1L, new Date(System.currentTimeMillis() + 2_000));
+
+    // Assert
+    assertFalse(invalidated);
+  }
+
+  @Test
+  void new_ShouldReplayWatermarksWithMillisecondPrecision() throws Exception {
+    // Arrange
+    final String path = dir.resolve("revocations.log").toString();
+    final long watermark = System.currentTimeMillis() / 1000 * 1000 + 500;
+    try (RevocationLog log = new RevocationLog(path, Clock.systemUTC())) {
+      log.append(
+          new RevocationLog.Entry(
+              RevocationLog.Kind.WATERMARK, watermark / 1000 + 3600, 2L, watermark));
+    }
+
+    // Act
+    final TokenWatermarks replayed =
+        new TokenWatermarks(3600000L, new RevocationLog(path, Clock.systemUTC()));
+
+    // Assert
+    assertTrue(replayed.isInvalidated(2L, new Date(watermark - 1)));
+    assertFalse(replayed.isInvalidated(2L, new Date(watermark)));
+  }
+
+  @Test
+  void onUserDeleted_ShouldInvalidateIssuedTokens() {
+    // Arrange
+    final Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+
+    // Act
+    watermarks.onUserDeleted(new UserDeletedEvent(1L));
+
+    // Assert
+    assertTrue(watermarks.isInvalidated(1L, issuedAt));
+  }
+}
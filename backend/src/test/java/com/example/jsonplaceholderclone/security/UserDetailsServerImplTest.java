@@ -0,0 +1,50 @@
+package com.example.jsonplaceholderclone.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServerImplTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks private UserDetailsServerImpl userDetailsService;
+
+  @Test
+  void updatePassword_ShouldSaveRehashAndPublishUserSaved() {
+    // Arrange
+    final User user = new User();
+    user.setId(1L);
+    user.setUsername("alice");
+    user.setPassword("{bcrypt}old");
+    when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+    when(userRepository.save(user)).thenReturn(user);
+    final UserPrincipal principal =
+        new UserPrincipal(
+            1L, "alice", "{bcrypt}old", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    // Act
+    final UserDetails updated = userDetailsService.updatePassword(principal, "{argon2}new");
+
+    // Assert
+    assertEquals("{argon2}new", updated.getPassword());
+    assertEquals("{argon2}new", user.getPassword());
+    verify(eventPublisher, times(1)).publishEvent(new UserSavedEvent(user));
+  }
+}
@@ -0,0 +1,182 @@
+package com.example.jsonplaceholderclone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.event.UserPasswordsStoredEvent;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import com.example.jsonplaceholderclone.security.PasswordHashingBusyException;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPasswordHasherTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private PasswordEncoder passwordEncoder;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private EntityManagerFactory entityManagerFactory;
+
+  @Mock private Cache entityCache;
+
+  private BatchPasswordHasher hasher;
+
+  @BeforeEach
+  void setUp() {
+    hasher =
+        new BatchPasswordHasher(
+            userRepository,
+            passwordEncoder,
+            eventPublisher,
+            transactionManager,
+            entityManagerFactory,
+            2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    hasher.close();
+  }
+
+  @Test
+  void submit_ShouldStoreHashesOfUsersStillWithoutPassword() throws Exception {
+    // Arrange
+    when(entityManagerFactory.getCache()).thenReturn(entityCache);
+    when(passwordEncoder.encode(any())).thenAnswer(call -> "hashed-" + call.getArgument(0));
+    // user 2 got a password meanwhile and user 3 was deleted
+    when(userRepository.storePendingPasswords(anyMap()))
+        .thenAnswer(
+            call -> {
+              final Map<Long, String> hashes = call.getArgument(0);
+              return hashes.containsKey(1L) ? List.of(1L) : List.of();
+            });
+    final Map<Long, String> passwords = new LinkedHashMap<>();
+    passwords.put(1L, "first");
+    passwords.put(2L, "second");
+    passwords.put(3L, "third");
+
+    // Act
+    final PasswordJob job = awaitDone(hasher.submit(passwords).getId());
+
+    // Assert
+    assertEquals(new PasswordJob(job.getId(), 3, 1, 2, 0), job);
+    final Map<Long, String> firstChunk = new LinkedHashMap<>();
+    firstChunk.put(1L, "hashed-first");
+    firstChunk.put(2L, "hashed-second");
+    verify(userRepository, times(1)).storePendingPasswords(firstChunk);
+    verify(userRepository, times(1)).storePendingPasswords(Map.of(3L, "hashed-third"));
+    verify(eventPublisher, times(1)).publishEvent(new UserPasswordsStoredEvent(List.of(1L)));
+    verify(entityCache, times(1)).evict(User.class, 1L);
+    verifyNoMoreInteractions(entityCache);
+  }
+
+  @Test
+  void submit_ShouldHashChunksInParallelAndStoreEachWithOneCall() throws Exception {
+    // Arrange
+    when(entityManagerFactory.getCache()).thenReturn(entityCache);
+    final Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+    when(passwordEncoder.encode(any()))
+        .thenAnswer(
+            call -> {
+              hashingThreads.add(Thread.currentThread().getName());
+              Thread.sleep(1);
+              return "hashed-" + call.getArgument(0);
+            });
+    final List<Map<Long, String>> chunks = Collections.synchronizedList(new ArrayList<>());
+    when(userRepository.storePendingPasswords(anyMap()))
+        .thenAnswer(
+            call -> {
+              final Map<Long, String> hashes = call.getArgument(0);
+              chunks.add(hashes);
+              return List.copyOf(hashes.keySet());
+            });
+    final Map<Long, String> passwords = new LinkedHashMap<>();
+    LongStream.rangeClosed(1, 1200).forEach(id -> passwords.put(id, "secret" + id));
+
+    // Act
+    final PasswordJob job = awaitDone(hasher.submit(passwords).getId());
+
+    // Assert
+    assertEquals(1200, job.getHashed());
+    assertEquals(3, chunks.size());
+    chunks.forEach(chunk -> assertTrue(chunk.size() <= 500));
+    assertEquals(2, hashingThreads.size());
+  }
+
+  @Test
+  void submit_WhenHashingPoolIsFull_ShouldRetry() throws Exception {
+    // Arrange
+    when(entityManagerFactory.getCache()).thenReturn(entityCache);
+    when(passwordEncoder.encode("secret"))
+        .thenThrow(new PasswordHashingBusyException(0))
+        .thenReturn("hashed");
+    when(userRepository.storePendingPasswords(Map.of(1L, "hashed"))).thenReturn(List.of(1L));
+
+    // Act
+    final PasswordJob job = awaitDone(hasher.submit(Map.of(1L, "secret")).getId());
+
+    // Assert
+    assertEquals(1, job.getHashed());
+    verify(passwordEncoder, times(2)).encode("secret");
+  }
+
+  @Test
+  void submit_WhenStoreFails_ShouldCountUsersAsFailed() throws Exception {
+    // Arrange
+    when(passwordEncoder.encode("secret")).thenReturn("hashed");
+    when(userRepository.storePendingPasswords(anyMap()))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    // Act
+    final PasswordJob job = awaitDone(hasher.submit(Map.of(1L, "secret")).getId());
+
+    // Assert
+    assertEquals(1, job.getFailed());
+    verifyNoInteractions(entityCache);
+  }
+
+  @Test
+  void find_WithUnknownId_ShouldReturnEmpty() {
+    assertTrue(hasher.find("missing").isEmpty());
+  }
+
+  private PasswordJob awaitDone(final String id) throws InterruptedException {
+    final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (System.nanoTime() < deadline) {
+      final PasswordJob job = hasher.find(id).orElseThrow();
+      if (job.isDone()) {
+        return job;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Password job " + id + " did not finish");
+  }
+}
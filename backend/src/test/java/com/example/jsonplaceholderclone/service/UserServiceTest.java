@@ -4,6 +4,20 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.example.jsonplaceholderclone.dto.BulkResult;
+import com.example.jsonplaceholderclone.dto.BulkUserRequest;
+import com.example.jsonplaceholderclone.dto.CursorPage;
+import com.example.jsonplaceholderclone.dto.PageCursor;
+import com.example.jsonplaceholderclone.dto.PasswordJob;
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.dto.UserBatch;
+import com.example.jsonplaceholderclone.dto.UserFieldSet;
+import com.example.jsonplaceholderclone.dto.UserFilter;
+import com.example.jsonplaceholderclone.dto.UserPageRequest;
+import com.example.jsonplaceholderclone.dto.UserSort;
+import com.example.jsonplaceholderclone.event.UserDeletedEvent;
+import com.example.jsonplaceholderclone.event.UserPasswordChangedEvent;
+import com.example.jsonplaceholderclone.event.UserSavedEvent;
 import com.example.jsonplaceholderclone.model.Address;
 import com.example.jsonplaceholderclone.model.Company;
 import com.example.jsonplaceholderclone.model.User;
@@ -11,13 +25,20 @@ import com.example.jsonplaceholderclone.repository.UserRepository;
 import com.example.jsonplaceholderclone.service.impl.UserServiceImpl;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -26,11 +47,29 @@ class UserServiceTest {
 
   @Mock private PasswordEncoder passwordEncoder;
 
+  @Mock private UserSearchEngine searchEngine;
+
+  @Mock private UserSuggestionIndex suggestionIndex;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private BatchPasswordHasher batchPasswordHasher;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
   private UserService userService;
 
   @BeforeEach
   void setUp() {
-    userService = new UserServiceImpl(userRepository, passwordEncoder);
+    userService =
+        new UserServiceImpl(
+            userRepository,
+            passwordEncoder,
+            searchEngine,
+            suggestionIndex,
+            eventPublisher,
+            batchPasswordHasher,
+            transactionManager);
   }
 
   @Test
@@ -49,6 +88,168 @@ class UserServiceTest {
     verify(userRepository, times(1)).findAll();
   }
 
+  @Test
+  void getUsersPage_WhenMoreRowsExist_ShouldReturnCursorToLastItem() {
+    // Arrange
+    final List<User> rows =
+        Arrays.asList(createSampleUser(1L), createSampleUser(2L), createSampleUser(3L));
+    final UserFilter filter = new UserFilter();
+    when(userRepository.findPage(filter, UserSort.BY_ID, null, 3)).thenReturn(rows);
+
+    // Act
+    final CursorPage<User> page =
+        userService.getUsersPage(new UserPageRequest(filter, UserSort.BY_ID, null, 2, false));
+
+    // Assert
+    assertEquals(2, page.getItems().size());
+    assertEquals(2L, PageCursor.decode(page.getNextCursor()).getLastId());
+    assertNull(page.getApproximateTotal());
+    verify(userRepository, never()).approximateCount();
+  }
+
+  @Test
+  void getUsersPage_OnLastPage_ShouldNotReturnCursor() {
+    // Arrange
+    final UserFilter filter = new UserFilter();
+    final PageCursor cursor = new PageCursor("id", 2L, null);
+    when(userRepository.findPage(filter, UserSort.BY_ID, cursor, 3))
+        .thenReturn(List.of(createSampleUser(3L)));
+    when(userRepository.approximateCount()).thenReturn(3L);
+
+    // Act
+    final CursorPage<User> page =
+        userService.getUsersPage(
+            new UserPageRequest(filter, UserSort.BY_ID, cursor.encode(), 2, true));
+
+    // Assert
+    assertEquals(1, page.getItems().size());
+    assertNull(page.getNextCursor());
+    assertEquals(3L, page.getApproximateTotal());
+  }
+
+  @Test
+  void getUsersPage_WithFilterAndTotal_ShouldCountMatchingRows() {
+    // Arrange
+    final UserFilter filter = new UserFilter();
+    filter.setCity("Gwenborough");
+    when(userRepository.findPage(filter, UserSort.BY_ID, null, 3)).thenReturn(List.of());
+    when(userRepository.countMatching(filter)).thenReturn(7L);
+
+    // Act
+    final CursorPage<User> page =
+        userService.getUsersPage(new UserPageRequest(filter, UserSort.BY_ID, null, 2, true));
+
+    // Assert
+    assertEquals(7L, page.getApproximateTotal());
+    verify(userRepository, never()).approximateCount();
+  }
+
+  @Test
+  void getUsersPage_SortedByName_ShouldCursorOnNameAndId() {
+    // Arrange
+    final UserSort sort = UserSort.parse("-name");
+    final User first = createSampleUser(9L);
+    first.setName("Zed");
+    final User second = createSampleUser(4L);
+    second.setName("Amy");
+    when(userRepository.findPage(any(UserFilter.class), eq(sort), isNull(), eq(2)))
+        .thenReturn(List.of(first, second));
+
+    // Act
+    final CursorPage<User> page =
+        userService.getUsersPage(new UserPageRequest(new UserFilter(), sort, null, 1, false));
+
+    // Assert
+    assertEquals(new PageCursor("-name", 9L, "Zed"), PageCursor.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void getUsersPage_WithMalformedOrForeignCursor_ShouldThrow() {
+    final String byName = new PageCursor("name", 1L, "Amy").encode();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            userService.getUsersPage(
+                new UserPageRequest(new UserFilter(), UserSort.BY_ID, "%%%", 2, false)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            userService.getUsersPage(
+                new UserPageRequest(new UserFilter(), UserSort.BY_ID, byName, 2, false)));
+    verify(userRepository, never()).findPage(any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void getUserFieldsPage_ShouldSelectSortColumnAndCursorOnLastReturnedRow() {
+    // Arrange
+    final UserSort sort = UserSort.parse("username");
+    final List<Map<String, Object>> rows =
+        List.of(
+            Map.of("id", 4L, "username", "a"),
+            Map.of("id", 5L, "username", "b"),
+            Map.of("id", 6L, "username", "c"));
+    when(userRepository.findFieldsPage(
+            argThat(fields -> fields.getColumns().contains("username")),
+            any(UserFilter.class),
+            eq(sort),
+            isNull(),
+            eq(3)))
+        .thenReturn(rows);
+
+    // Act
+    final CursorPage<Map<String, Object>> page =
+        userService.getUserFieldsPage(
+            new UserPageRequest(new UserFilter(), sort, null, 2, false),
+            UserFieldSet.parse("name"));
+
+    // Assert
+    assertEquals(2, page.getItems().size());
+    assertEquals(new PageCursor("username", 5L, "b"), PageCursor.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void exportUsers_ShouldStreamThroughRepository() {
+    // Arrange
+    final Consumer<User> sink = user -> {};
+
+    // Act
+    userService.exportUsers(sink);
+
+    // Assert
+    verify(userRepository, times(1)).forEachUser(sink);
+    verify(userRepository, never()).findAll();
+  }
+
+  @Test
+  void searchUsers_ShouldKeepEngineRankingAndSignalMorePages() {
+    // Arrange
+    final SearchQuery query = SearchQuery.parse("graham");
+    when(searchEngine.search(query, 0, 3)).thenReturn(List.of(7L, 2L, 5L));
+    when(userRepository.findByIdIn(List.of(7L, 2L)))
+        .thenReturn(List.of(createSampleUser(2L), createSampleUser(7L)));
+
+    // Act
+    final CursorPage<User> page = userService.searchUsers(query, 0, 2);
+
+    // Assert
+    assertEquals(List.of(7L, 2L), page.getItems().stream().map(User::getId).toList());
+    assertEquals("2", page.getNextCursor());
+  }
+
+  @Test
+  void suggest_ShouldAnswerFromIndexWithoutRepository() {
+    // Arrange
+    when(suggestionIndex.suggest("bre", 5)).thenReturn(List.of("Bret"));
+
+    // Act
+    final List<String> suggestions = userService.suggest("bre", 5);
+
+    // Assert
+    assertEquals(List.of("Bret"), suggestions);
+    verifyNoInteractions(userRepository);
+  }
+
   @Test
   void getUserById_WhenUserExists_ShouldReturnUser() {
     // Arrange
@@ -92,6 +293,82 @@ class UserServiceTest {
     assertEquals("hashedPassword", createdUser.getPassword());
     verify(passwordEncoder, times(1)).encode("plainPassword");
     verify(userRepository, times(1)).save(user);
+    verify(eventPublisher, times(1)).publishEvent(new UserSavedEvent(user));
+  }
+
+  @Test
+  void createUser_ShouldHashBeforeOpeningTransaction() {
+    // Arrange
+    final User user = createSampleUser(null);
+    user.setPassword("plainPassword");
+    when(passwordEncoder.encode("plainPassword")).thenReturn("hashedPassword");
+    when(userRepository.save(user)).thenReturn(user);
+
+    // Act
+    userService.createUser(user);
+
+    // Assert
+    final InOrder inOrder = inOrder(passwordEncoder, transactionManager, userRepository);
+    inOrder.verify(passwordEncoder).encode("plainPassword");
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(userRepository).save(user);
+  }
+
+  @Test
+  void createUsers_ShouldInsertInBatchesWithoutHashing() {
+    // Arrange
+    final User first = createSampleUser(1L);
+    first.setPassword("first");
+    final User second = createSampleUser(2L);
+    second.setPassword(null);
+    final PasswordJob job = new PasswordJob("job-1", 1, 0, 0, 0);
+    when(batchPasswordHasher.submit(Map.of(1L, "first"))).thenReturn(job);
+    final List<User> users = List.of(first, second);
+
+    // Act
+    final UserBatch created = userService.createUsers(users);
+
+    // Assert
+    assertEquals(users, created.getUsers());
+    assertEquals(job, created.getPasswordJob());
+    assertNull(first.getPassword());
+    assertNull(second.getPassword());
+    verify(passwordEncoder, never()).encode(any());
+    verify(userRepository, times(1)).insertAll(users);
+    verify(userRepository, never()).save(any(User.class));
+    verify(eventPublisher, times(1)).publishEvent(new UserSavedEvent(first));
+    verify(eventPublisher, times(1)).publishEvent(new UserSavedEvent(second));
+  }
+
+  @Test
+  void createUsers_ShouldQueuePasswordsAfterCommit() {
+    // Arrange
+    final User user = createSampleUser(1L);
+    user.setPassword("secret");
+
+    // Act
+    userService.createUsers(List.of(user));
+
+    // Assert
+    final InOrder inOrder = inOrder(userRepository, transactionManager, batchPasswordHasher);
+    inOrder.verify(userRepository).insertAll(List.of(user));
+    inOrder.verify(userRepository).markPasswordsPending(Set.of(1L));
+    inOrder.verify(transactionManager).commit(any());
+    inOrder.verify(batchPasswordHasher).submit(Map.of(1L, "secret"));
+  }
+
+  @Test
+  void createUsers_WithoutPasswords_ShouldNotStartJob() {
+    // Arrange
+    final User user = createSampleUser(1L);
+    user.setPassword(null);
+
+    // Act
+    final UserBatch created = userService.createUsers(List.of(user));
+
+    // Assert
+    assertNull(created.getPasswordJob());
+    verify(batchPasswordHasher, never()).submit(any());
   }
 
   @Test
@@ -112,6 +389,65 @@ class UserServiceTest {
     verify(userRepository, times(1)).save(any(User.class));
   }
 
+  @Test
+  void updateUser_WithNewPassword_ShouldInvalidateIssuedTokens() {
+    // Arrange
+    final User existingUser = createSampleUser(1L);
+    final User update = createSampleUser(1L);
+    update.setPassword("newPassword");
+    when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+    when(passwordEncoder.encode("newPassword")).thenReturn("hashedNewPassword");
+    when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+    // Act
+    userService.updateUser(1L, update);
+
+    // Assert
+    assertEquals("hashedNewPassword", existingUser.getPassword());
+    verify(eventPublisher, times(1)).publishEvent(new UserPasswordChangedEvent(1L));
+  }
+
+  @Test
+  void updateUser_WithNewPassword_ShouldHashBeforeOpeningTransaction() {
+    // Arrange
+    final User existingUser = createSampleUser(1L);
+    final User update = createSampleUser(1L);
+    update.setPassword("newPassword");
+    when(passwordEncoder.encode("newPassword")).thenReturn("hashedNewPassword");
+    when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+    when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+    // Act
+    userService.updateUser(1L, update);
+
+    // Assert
+    final InOrder inOrder = inOrder(passwordEncoder, transactionManager, userRepository);
+    inOrder.verify(passwordEncoder).encode("newPassword");
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(userRepository).findById(1L);
+  }
+
+  @Test
+  void updateUser_ShouldUpdateOwnedAddressAndCompanyInPlace() {
+    // Arrange
+    final User existingUser = createSampleUser(1L);
+    final Address existingAddress = existingUser.getAddress();
+    final User update = createSampleUser(null);
+    update.getAddress().setCity("New City");
+    update.getCompany().setName("New Company");
+    when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+    when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+    // Act
+    final User result = userService.updateUser(1L, update);
+
+    // Assert
+    assertSame(existingAddress, result.getAddress());
+    assertEquals(1L, result.getAddress().getId());
+    assertEquals("New City", result.getAddress().getCity());
+    assertEquals("New Company", result.getCompany().getName());
+  }
+
   @Test
   void updateUser_WhenUserDoesNotExist_ShouldThrowException() {
     // Arrange
@@ -131,6 +467,82 @@ class UserServiceTest {
 
     // Assert
     verify(userRepository, times(1)).deleteById(1L);
+    verify(eventPublisher, times(1)).publishEvent(new UserDeletedEvent(1L));
+  }
+
+  @Test
+  void updateUsers_ShouldRunBulkUpdateAndPublishReloadedUsers() {
+    // Arrange
+    final BulkUserRequest request = new BulkUserRequest();
+    request.setIds(List.of(1L, 2L));
+    final User changes = new User();
+    changes.setWebsite("newco.example");
+    request.setSet(changes);
+    final User reloaded = createSampleUser(1L);
+    when(userRepository.findIdsMatching(any(UserFilter.class), eq(List.of(1L, 2L)), anyInt()))
+        .thenReturn(List.of(1L));
+    when(userRepository.bulkUpdate(List.of(1L), changes)).thenReturn(new BulkResult(1, 0, 0));
+    when(userRepository.findByIdIn(List.of(1L))).thenReturn(List.of(reloaded));
+
+    // Act
+    final BulkResult result = userService.updateUsers(request);
+
+    // Assert
+    assertEquals(new BulkResult(1, 0, 0), result);
+    verify(eventPublisher, times(1)).publishEvent(new UserSavedEvent(reloaded));
+  }
+
+  @Test
+  void updateUsers_WhenSettingUsername_ShouldThrow() {
+    // Arrange
+    final BulkUserRequest request = new BulkUserRequest();
+    request.setIds(List.of(1L));
+    final User changes = new User();
+    changes.setUsername("taken");
+    request.setSet(changes);
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> userService.updateUsers(request));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void deleteUsers_WithoutIdsOrFilter_ShouldThrow() {
+    // Act & Assert
+    assertThrows(
+        IllegalArgumentException.class, () -> userService.deleteUsers(new BulkUserRequest()));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void deleteUsers_WithTooManyIds_ShouldThrowBeforeQuerying() {
+    // Arrange
+    final BulkUserRequest request = new BulkUserRequest();
+    request.setIds(LongStream.rangeClosed(1, 10_001).boxed().toList());
+
+    // Act & Assert
+    assertThrows(IllegalArgumentException.class, () -> userService.deleteUsers(request));
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void deleteUsers_ShouldRunBulkDeleteAndPublishDeletions() {
+    // Arrange
+    final BulkUserRequest request = new BulkUserRequest();
+    final UserFilter filter = new UserFilter();
+    filter.setCity("Gwenborough");
+    request.setFilter(filter);
+    when(userRepository.findIdsMatching(eq(filter), isNull(), anyInt()))
+        .thenReturn(List.of(3L, 4L));
+    when(userRepository.bulkDelete(List.of(3L, 4L))).thenReturn(new BulkResult(2, 2, 2));
+
+    // Act
+    final BulkResult result = userService.deleteUsers(request);
+
+    // Assert
+    assertEquals(new BulkResult(2, 2, 2), result);
+    verify(eventPublisher, times(1)).publishEvent(new UserDeletedEvent(3L));
+    verify(eventPublisher, times(1)).publishEvent(new UserDeletedEvent(4L));
   }
 
   @Test
@@ -0,0 +1,68 @@
+package com.example.jsonplaceholderclone.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class UserSuggestionIndexTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private UserSuggestionIndex suggestionIndex;
+
+  @BeforeEach
+  void setUp() {
+    suggestionIndex = new UserSuggestionIndex(userRepository, transactionManager);
+    suggestionIndex.index(createSampleUser(1L, "Bret", "Sincere@april.biz"));
+    suggestionIndex.index(createSampleUser(2L, "Antonette", "Shanna@melissa.tv"));
+    suggestionIndex.index(createSampleUser(3L, "Samantha", "Nathan@yesenia.net"));
+  }
+
+  @Test
+  void suggest_ShouldMatchUsernamesAndEmailsIgnoringCase() {
+    // Act & Assert
+    assertEquals(List.of("Bret"), suggestionIndex.suggest("bR", 10));
+    assertEquals(
+        List.of("Samantha", "Shanna@melissa.tv", "Sincere@april.biz"),
+        suggestionIndex.suggest("s", 10));
+    assertEquals(List.of(), suggestionIndex.suggest("zz", 10));
+  }
+
+  @Test
+  void suggest_ShouldStopAtLimit() {
+    // Act & Assert
+    assertEquals(List.of("Samantha", "Shanna@melissa.tv"), suggestionIndex.suggest("s", 2));
+  }
+
+  @Test
+  void index_And_Remove_ShouldReplaceStaleEntries() {
+    // Act
+    suggestionIndex.index(createSampleUser(1L, "Brett", "brett@april.biz"));
+    suggestionIndex.remove(2L);
+
+    // Assert
+    assertEquals(List.of("Brett", "brett@april.biz"), suggestionIndex.suggest("bre", 10));
+    assertEquals(List.of(), suggestionIndex.suggest("sincere", 10));
+    assertEquals(List.of(), suggestionIndex.suggest("anto", 10));
+  }
+
+  private User createSampleUser(final Long id, final String username, final String email) {
+    final User user = new User();
+    user.setId(id);
+    user.setName("Test User");
+    user.setUsername(username);
+    user.setEmail(email);
+    return user;
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.jsonplaceholderclone.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.jsonplaceholderclone.dto.SearchQuery;
+import com.example.jsonplaceholderclone.model.Address;
+import com.example.jsonplaceholderclone.model.Company;
+import com.example.jsonplaceholderclone.model.User;
+import com.example.jsonplaceholderclone.repository.UserRepository;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryUserSearchEngineTest {
+
+  @Mock private UserRepository userRepository;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private InMemoryUserSearchEngine searchEngine;
+
+  @BeforeEach
+  void setUp() {
+    searchEngine = new InMemoryUserSearchEngine(userRepository, transactionManager);
+    searchEngine.index(createSampleUser(1L, "Leanne Graham", "Sincere@april.biz", "Gwenborough"));
+    searchEngine.index(createSampleUser(2L, "Ervin Howell", "Shanna@melissa.tv", "Wisokyburgh"));
+    searchEngine.index(createSampleUser(3L, "Clementine Bauch", "Nathan@yesenia.net", "Graham"));
+  }
+
+  @Test
+  void search_ShouldMatchPrefixesAcrossUserAddressAndCompany() {
+    // Act & Assert
+    assertEquals(Set.of(1L), matches("leann"));
+    assertEquals(Set.of(2L), matches("melissa"));
+    assertEquals(Set.of(1L), matches("gwenb"));
+    assertEquals(Set.of(1L, 2L, 3L), matches("neural"));
+  }
+
+  @Test
+  void search_ShouldRequireEveryTerm() {
+    // Act & Assert
+    assertEquals(Set.of(1L), matches("graham april"));
+    assertEquals(Set.of(), matches("graham melissa"));
+  }
+
+  @Test
+  void search_ShouldRankByBestLabelWeight() {
+    // Act & Assert
+    assertEquals(List.of(1L, 3L), search("graham"));
+  }
+
+  @Test
+  void search_ShouldPageThroughRanking() {
+    // Act & Assert
+    assertEquals(List.of(2L), searchEngine.search(SearchQuery.parse("neural"), 1, 1));
+  }
+
+  @Test
+  void index_And_Remove_ShouldReplaceStaleTerms() {
+    // Arrange
+    final User renamed = createSampleUser(1L, "Leanne Smith", "Sincere@april.biz", "Gwenborough");
+
+    // Act
+    searchEngine.index(renamed);
+    searchEngine.remove(2L);
+
+    // Assert
+    assertEquals(List.of(3L), search("graham"));
+    assertEquals(List.of(1L), search("smith"));
+    assertEquals(List.of(), search("ervin"));
+  }
+
+  private List<Long> search(final String query) {
+    return searchEngine.search(SearchQuery.parse(query), 0, 10);
+  }
+
+  // only the set of matches is shared with the PostgreSQL engine, not their order
+  private Set<Long> matches(final String query) {
+    return Set.copyOf(search(query));
+  }
+
+  private User createSampleUser(
+      final Long id, final String name, final String email, final String city) {
+    final User user = new User();
+    user.setId(id);
+    user.setName(name);
+    user.setUsername(email.substring(0, email.indexOf('@')));
+    user.setEmail(email);
+
+    final Address address = new Address();
+    address.setStreet("Kulas Light");
+    address.setCity(city);
+    user.setAddress(address);
+
+    final Company company = new Company();
+    company.setName("Romaguera-Crona");
+    company.setCatchPhrase("Multi-layered client-server neural-net");
+    company.setBs("harness real-time e-markets");
+    user.setCompany(company);
+
+    return user;
+  }
+}